@@ -0,0 +1,66 @@
+package minesweeper;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Left click on a board without mines, so a single zero cell floods the whole board, until Game
+ * reports the press settled: every cell has been revealed, reported and sent on.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CascadeBenchmark {
+
+    @Param({"16x30", "100x100", "300x300"})
+    public String board;
+
+    @Param({"cells", "regions", "sequential"})
+    public String engine;
+
+    private Channel<GameState> windowChannel;
+    private Channel<GameSignal> gameChannel;
+    private Game game;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        var mode = Mode.parse(board + "x0").orElseThrow();
+        windowChannel = Channels.DEFAULT.windowChannel();
+        gameChannel = Channels.DEFAULT.gameChannel();
+        var engines = new Engines(Engines.Kind.valueOf(engine.toUpperCase()), 32, 32);
+        game = new Game(mode, Channels.DEFAULT, engines, Carriers.DEFAULT, new Random(), windowChannel, gameChannel);
+        game.start();
+        windowChannel.take(); // initial snapshot
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        game.close();
+    }
+
+    @Benchmark
+    public GameState floodFill() {
+        gameChannel.put(new GameSignal.TilePress(0, 0, ClickSide.LEFT));
+        GameState gs;
+        do {
+            gs = windowChannel.take();
+        } while (!(gs instanceof GameState.Settled));
+        return gs;
+    }
+
+}
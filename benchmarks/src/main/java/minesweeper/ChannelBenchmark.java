@@ -0,0 +1,62 @@
+package minesweeper;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChannelBenchmark {
+
+    private static final int MESSAGES = 120_000;
+    private static final Integer MESSAGE = 1;
+
+    @Param({"queue", "ring", "rendezvous"})
+    public String kind;
+
+    @Param({"1", "4", "8"})
+    public int producers;
+
+    private Channel<Integer> channel;
+
+    @Setup
+    public void setUp() {
+        channel = ChannelKind.valueOf(kind.toUpperCase()).create(Channels.DEFAULT.capacity());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public long putTake() throws InterruptedException {
+        var perProducer = MESSAGES / producers;
+        var threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            threads[i] = Thread.ofVirtual().start(() -> {
+                for (int j = 0; j < perProducer; j++) {
+                    channel.put(MESSAGE);
+                }
+            });
+        }
+        long sum = 0;
+        for (int i = 0; i < MESSAGES; i++) {
+            sum += channel.take();
+        }
+        for (var t : threads) {
+            t.join();
+        }
+        return sum;
+    }
+
+}
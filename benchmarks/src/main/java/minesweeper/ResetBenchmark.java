@@ -0,0 +1,56 @@
+package minesweeper;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a new game on the same Game instance, as done on a face press.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ResetBenchmark {
+
+    @Param({"beginner", "intermediate", "advanced"})
+    public String mode;
+
+    private Game game;
+
+    @Setup
+    public void setUp() {
+        var m = Mode.parse(mode).orElseThrow();
+        game = new Game(
+                m,
+                Channels.DEFAULT,
+                Engines.DEFAULT,
+                Carriers.DEFAULT,
+                new Random(0),
+                Channels.DEFAULT.windowChannel(),
+                Channels.DEFAULT.gameChannel());
+    }
+
+    @TearDown
+    public void tearDown() {
+        game.close();
+    }
+
+    @Benchmark
+    public void resetCells() {
+        game.resetCells();
+    }
+
+}
@@ -0,0 +1,96 @@
+package minesweeper;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Solver throughput on one core: whole games played against a board revealed in place, without
+ * cell processes, so only the solver is measured. Boards come from a fixed seed.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SolverBenchmark {
+
+    @Param({"beginner", "intermediate", "advanced"})
+    public String mode;
+
+    private Mode m;
+    private MinePlacer placer;
+    private Board mines;
+    private int center; // the solver's opening click
+    private int[] stack;
+
+    @Setup
+    public void setUp() {
+        m = Mode.parse(mode).orElseThrow();
+        placer = new MinePlacer(m, new SplittableRandom(1));
+        mines = new Board(m);
+        center = m.index(m.rows / 2, m.columns / 2);
+        stack = new int[m.cells()];
+    }
+
+    @Benchmark
+    public boolean play() {
+        var mines = layout();
+        var board = new Board(m);
+        var solver = new Solver(m);
+        var revealed = 0;
+        while (revealed < m.nonMines()) {
+            for (var tile : solver.next(board)) {
+                if (mines.mine(tile)) {
+                    return false;
+                }
+                revealed += reveal(board, mines, tile);
+            }
+        }
+        return true;
+    }
+
+    // as a game first clicked at the center tile places them, where the solver opens
+    private Board layout() {
+        mines.clear();
+        mines.layMines(placer.place(center), m.mines);
+        return mines;
+    }
+
+    private int reveal(Board board, Board mines, int tile) {
+        if (board.revealed(tile)) {
+            return 0;
+        }
+        var size = 0;
+        var count = 0;
+        stack[size++] = open(board, mines, tile);
+        while (size > 0) {
+            var cell = stack[--size];
+            count++;
+            if (mines.neighborMines(cell) == 0) {
+                for (var offset : m.neighborOffsets(cell)) {
+                    if (!board.revealed(cell + offset)) {
+                        stack[size++] = open(board, mines, cell + offset);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private int open(Board board, Board mines, int cell) {
+        board.set(new CellState(m.row(cell), m.col(cell), false, true, false, mines.neighborMines(cell)));
+        return cell;
+    }
+
+}
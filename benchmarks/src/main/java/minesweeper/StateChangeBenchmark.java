@@ -0,0 +1,69 @@
+package minesweeper;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-signal cost of Game handling a StateChange while playing, including the won/lost checks.
+ * Signals toggle flags on every cell so the game never ends.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StateChangeBenchmark {
+
+    @Param({"advanced", "300x300x10000"})
+    public String mode;
+
+    private Game game;
+    private GameSignal.StateChange[] signals;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        var m = Mode.parse(mode).orElseThrow();
+        game = new Game(
+                m,
+                Channels.DEFAULT,
+                Engines.DEFAULT,
+                Carriers.DEFAULT,
+                new Random(0),
+                Channels.DEFAULT.windowChannel(),
+                Channels.DEFAULT.gameChannel());
+        game.onSignal(new GameSignal.TilePress(0, 0, ClickSide.LEFT)); // enter PLAYING, game process isn't running
+        signals = new GameSignal.StateChange[2 * m.cells()];
+        for (int r = 0; r < m.rows; r++) {
+            for (int c = 0; c < m.columns; c++) {
+                var i = 2 * m.index(r, c);
+                signals[i] = new GameSignal.StateChange(new CellState(r, c, false, false, true, 0), game.generation());
+                signals[i + 1] = new GameSignal.StateChange(new CellState(r, c, false, false, false, 0), game.generation());
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        game.close();
+    }
+
+    @Benchmark
+    public void onStateChange() {
+        game.onSignal(signals[next]);
+        next = next + 1 == signals.length ? 0 : next + 1;
+    }
+
+}
@@ -0,0 +1,159 @@
+package minesweeper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Packed board store with one byte per cell: mine, revealed and flagged bits
+ * plus the neighbor mine count in the high nibble.
+ */
+final class Board {
+
+    private static final int MINE = 1;
+    private static final int REVEALED = 1 << 1;
+    private static final int FLAGGED = 1 << 2;
+    private static final int NEIGHBOR_SHIFT = 4;
+
+    private final Mode mode;
+    private final byte[] cells;
+
+    Board(Mode mode) {
+        this(mode, new byte[mode.cells()]);
+    }
+
+    Board(Mode mode, byte[] cells) {
+        if (cells.length != mode.cells()) {
+            throw new IllegalArgumentException("expected %d cells, got %d".formatted(mode.cells(), cells.length));
+        }
+        this.mode = mode;
+        this.cells = cells;
+    }
+
+    Mode mode() {
+        return mode;
+    }
+
+    void clear() {
+        Arrays.fill(cells, (byte) 0);
+    }
+
+    Board copy() {
+        return new Board(mode, cells.clone());
+    }
+
+    byte get(int index) {
+        return cells[index];
+    }
+
+    void apply(GameState.Delta delta) {
+        var indices = delta.cells();
+        var values = delta.values();
+        for (int i = 0; i < indices.length; i++) {
+            cells[indices[i]] = values[i];
+        }
+    }
+
+    boolean mine(int index) {
+        return hasMine(cells[index]);
+    }
+
+    boolean mine(int row, int col) {
+        return mine(mode.index(row, col));
+    }
+
+    boolean revealed(int index) {
+        return (cells[index] & REVEALED) != 0;
+    }
+
+    boolean revealed(int row, int col) {
+        return revealed(mode.index(row, col));
+    }
+
+    boolean flagged(int index) {
+        return (cells[index] & FLAGGED) != 0;
+    }
+
+    boolean flagged(int row, int col) {
+        return flagged(mode.index(row, col));
+    }
+
+    int neighborMines(int index) {
+        return neighborCount(cells[index]);
+    }
+
+    int neighborMines(int row, int col) {
+        return neighborMines(mode.index(row, col));
+    }
+
+    void setMine(int index) {
+        cells[index] |= MINE;
+    }
+
+    void setNeighborMines(int index, int neighborMines) {
+        cells[index] = (byte) ((cells[index] & 0x0F) | (neighborMines << NEIGHBOR_SHIFT));
+    }
+
+    // marks the first count cells of mines as mines and counts them at their neighbors
+    void layMines(int[] mines, int count) {
+        for (int i = 0; i < count; i++) {
+            var mine = mines[i];
+            setMine(mine);
+            for (var offset : mode.neighborOffsets(mine)) {
+                setNeighborMines(mine + offset, neighborMines(mine + offset) + 1);
+            }
+        }
+    }
+
+    int neighborFlags(int index) {
+        var count = 0;
+        for (var offset : mode.neighborOffsets(index)) {
+            if (flagged(index + offset)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void set(CellState cs) {
+        cells[mode.index(cs.row(), cs.col())] = encode(cs);
+    }
+
+    CellState cellState(int row, int col) {
+        return new CellState(row, col, mine(row, col), revealed(row, col), flagged(row, col), neighborMines(row, col));
+    }
+
+    // the cells as they are stored, one byte each
+    void write(DataOutput out) throws IOException {
+        out.write(cells);
+    }
+
+    static Board read(Mode mode, DataInput in) throws IOException {
+        var cells = new byte[mode.cells()];
+        in.readFully(cells);
+        return new Board(mode, cells);
+    }
+
+    // decoders for a cell byte read from elsewhere, such as a mapped corpus
+    static boolean hasMine(byte cell) {
+        return (cell & MINE) != 0;
+    }
+
+    static int neighborCount(byte cell) {
+        return (cell & 0xFF) >>> NEIGHBOR_SHIFT;
+    }
+
+    // what a player may see of a cell: a covered cell shows at most its flag
+    static byte visible(byte cell) {
+        return (cell & REVEALED) != 0 ? cell : (byte) (cell & FLAGGED);
+    }
+
+    static byte encode(CellState cs) {
+        return (byte) ((cs.mine() ? MINE : 0)
+                | (cs.revealed() ? REVEALED : 0)
+                | (cs.flagged() ? FLAGGED : 0)
+                | (cs.neighborMines() << NEIGHBOR_SHIFT));
+    }
+
+}
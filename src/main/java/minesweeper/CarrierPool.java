@@ -0,0 +1,180 @@
+package minesweeper;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InaccessibleObjectException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Carrier threads that a set of virtual-thread processes run on. The default pool is the JVM's own
+ * scheduler; any other is an {@link Executor} of the caller's choosing, such as a {@link java.util.concurrent.ForkJoinPool}
+ * or a fixed pool of platform threads, that takes the continuations of its virtual threads. With metrics
+ * enabled each run of a continuation is timed, so a pool can report how busy its carriers are.
+ * <p>
+ * JDK 21 has no public API for a virtual-thread scheduler. Pools other than the default build their threads
+ * with the JDK's own builder constructor that takes one, which needs
+ * {@code --add-opens java.base/java.lang=ALL-UNNAMED}; {@link #requireCustomPools()} checks for it once at
+ * startup. The default pool only ever uses {@link Thread#ofVirtual()}.
+ */
+final class CarrierPool implements AutoCloseable {
+
+    private static final Set<CarrierPool> OPEN = ConcurrentHashMap.newKeySet(); // declared first, DEFAULT joins it
+
+    private static final ThreadLocal<Boolean> ON_CUSTOM_POOL = new ThreadLocal<>();
+
+    static final CarrierPool DEFAULT = new CarrierPool("default", null, Runtime.getRuntime().availableProcessors(), false);
+
+    private final String name;
+    private final Executor scheduler; // null for the JVM's
+    private final int parallelism;
+    private final boolean owned; // shut down on close
+    private final long openedNanos = System.nanoTime();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private volatile long closedNanos;
+
+    // a pool of any executor, e.g. a custom ForkJoinPool; owned pools are shut down on close
+    CarrierPool(String name, Executor scheduler, int parallelism, boolean owned) {
+        this.name = name;
+        this.scheduler = scheduler;
+        this.parallelism = parallelism;
+        this.owned = owned;
+        OPEN.add(this);
+    }
+
+    static Set<CarrierPool> open() {
+        return OPEN;
+    }
+
+    // fails, naming the missing flag, if this JDK won't run virtual threads on a pool of our own
+    static void requireCustomPools() {
+        Builders.require();
+    }
+
+    ThreadFactory threads(String processName) {
+        if (scheduler == null) {
+            var factory = Thread.ofVirtual().name(processName).factory();
+            // a virtual thread inherits the scheduler of the thread that builds it, so one built from a custom
+            // pool's thread is built on a platform thread instead
+            return process -> ON_CUSTOM_POOL.get() == null ? factory.newThread(process) : buildOffPool(factory, process);
+        }
+        Executor executor = Metrics.ENABLED ? this::runTimed : scheduler;
+        var factory = Builders.virtual(executor).name(processName).factory();
+        return process -> factory.newThread(() -> {
+            ON_CUSTOM_POOL.set(Boolean.TRUE);
+            process.run();
+        });
+    }
+
+    private static Thread buildOffPool(ThreadFactory factory, Runnable process) {
+        var built = new Thread[1];
+        var builder = Thread.ofPlatform().daemon().start(() -> built[0] = factory.newThread(process));
+        try {
+            builder.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelInterruptedException(e);
+        }
+        return built[0];
+    }
+
+    private void runTimed(Runnable continuation) {
+        scheduler.execute(() -> {
+            var start = System.nanoTime();
+            try {
+                continuation.run();
+            } finally {
+                busyNanos.add(System.nanoTime() - start);
+                runs.increment();
+            }
+        });
+    }
+
+    String name() {
+        return name;
+    }
+
+    int parallelism() {
+        return parallelism;
+    }
+
+    boolean isDefault() {
+        return scheduler == null;
+    }
+
+    long runs() {
+        return runs.sum();
+    }
+
+    long busyNanos() {
+        return busyNanos.sum();
+    }
+
+    // carrier time available since the pool opened, up to now or its close
+    long capacityNanos() {
+        var end = closedNanos != 0 ? closedNanos : System.nanoTime();
+        return (end - openedNanos) * parallelism;
+    }
+
+    // call once the processes on the pool have ended
+    @Override
+    public void close() {
+        if (!owned || closedNanos != 0) {
+            return;
+        }
+        closedNanos = System.nanoTime();
+        OPEN.remove(this);
+        if (Metrics.ENABLED) {
+            Metrics.CARRIERS.closed(this);
+        }
+        if (scheduler instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isDefault() ? name : "%s(%d)".formatted(name, parallelism);
+    }
+
+    private static final class Builders {
+
+        private static final Constructor<?> VIRTUAL_WITH_SCHEDULER;
+        private static final String UNAVAILABLE; // why, if this JDK won't give it out
+
+        static {
+            Constructor<?> constructor = null;
+            String unavailable = null;
+            try {
+                constructor = Class.forName("java.lang.ThreadBuilders$VirtualThreadBuilder").getDeclaredConstructor(Executor.class);
+                constructor.setAccessible(true);
+            } catch (InaccessibleObjectException e) {
+                unavailable = "carrier pools need --add-opens java.base/java.lang=ALL-UNNAMED";
+            } catch (ReflectiveOperationException e) {
+                unavailable = "this JDK can't schedule virtual threads on a carrier pool: " + e;
+            }
+            VIRTUAL_WITH_SCHEDULER = constructor;
+            UNAVAILABLE = unavailable;
+        }
+
+        static void require() {
+            if (UNAVAILABLE != null) {
+                throw new IllegalStateException(UNAVAILABLE);
+            }
+        }
+
+        static Thread.Builder.OfVirtual virtual(Executor scheduler) {
+            require();
+            try {
+                return (Thread.Builder.OfVirtual) VIRTUAL_WITH_SCHEDULER.newInstance(scheduler);
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+package minesweeper;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Carrier pool counters, summed by kind of pool: the default scheduler, the shared pool, and the pools
+ * of every game, open or closed. Utilisation is carrier time spent running continuations over carrier
+ * time available, so a kind of pool that sits near 1 needs more carriers or fewer boards.
+ */
+class CarrierStats implements CarrierStatsMXBean {
+
+    private record Totals(long runs, long busyNanos, long capacityNanos) {
+        Totals plus(Totals other) {
+            return new Totals(runs + other.runs, busyNanos + other.busyNanos, capacityNanos + other.capacityNanos);
+        }
+
+        double utilisation() {
+            return capacityNanos == 0 ? 0 : busyNanos / (double) capacityNanos;
+        }
+    }
+
+    private final Map<String, Totals> closed = new ConcurrentHashMap<>();
+
+    void closed(CarrierPool pool) {
+        closed.merge(kind(pool), totals(pool), Totals::plus);
+    }
+
+    // "game-17" counts as "game"
+    private static String kind(CarrierPool pool) {
+        var dash = pool.name().indexOf('-');
+        return dash < 0 ? pool.name() : pool.name().substring(0, dash);
+    }
+
+    private static Totals totals(CarrierPool pool) {
+        return new Totals(pool.runs(), pool.busyNanos(), pool.capacityNanos());
+    }
+
+    private Map<String, Totals> totals() {
+        var map = new TreeMap<>(closed);
+        for (var pool : CarrierPool.open()) {
+            if (!pool.isDefault()) { // the JVM's scheduler can't be timed
+                map.merge(kind(pool), totals(pool), Totals::plus);
+            }
+        }
+        return map;
+    }
+
+    private static Map<String, Long> count(ToLongFunction<CarrierPool> value) {
+        var map = new TreeMap<String, Long>();
+        for (var pool : CarrierPool.open()) {
+            map.merge(kind(pool), value.applyAsLong(pool), Long::sum);
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getOpenPools() {
+        return count(pool -> 1);
+    }
+
+    @Override
+    public Map<String, Long> getCarriers() {
+        return count(CarrierPool::parallelism);
+    }
+
+    @Override
+    public Map<String, Long> getRuns() {
+        var map = new TreeMap<String, Long>();
+        totals().forEach((kind, t) -> map.put(kind, t.runs()));
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getBusyMillis() {
+        var map = new TreeMap<String, Long>();
+        totals().forEach((kind, t) -> map.put(kind, TimeUnit.NANOSECONDS.toMillis(t.busyNanos())));
+        return map;
+    }
+
+    @Override
+    public Map<String, Double> getUtilisation() {
+        var map = new TreeMap<String, Double>();
+        totals().forEach((kind, t) -> map.put(kind, t.utilisation()));
+        return map;
+    }
+
+    String dump() {
+        var sb = new StringBuilder();
+        var open = getOpenPools();
+        var carriers = getCarriers();
+        var totals = totals();
+        var kinds = new TreeMap<String, Long>(open);
+        totals.keySet().forEach(kind -> kinds.putIfAbsent(kind, 0L)); // kinds whose pools have all closed
+        kinds.forEach((kind, count) -> {
+            sb.append("carriers %s: open=%d carriers=%d".formatted(kind, count, carriers.getOrDefault(kind, 0L)));
+            var t = totals.get(kind);
+            if (t != null) {
+                sb.append(" runs=%d busyMs=%d utilisation=%.1f%%".formatted(
+                        t.runs(), TimeUnit.NANOSECONDS.toMillis(t.busyNanos()), 100 * t.utilisation()));
+            }
+            sb.append('\n');
+        });
+        return sb.toString();
+    }
+
+}
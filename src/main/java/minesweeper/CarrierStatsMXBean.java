@@ -0,0 +1,11 @@
+package minesweeper;
+
+import java.util.Map;
+
+public interface CarrierStatsMXBean {
+    Map<String, Long> getOpenPools();
+    Map<String, Long> getCarriers();
+    Map<String, Long> getRuns();
+    Map<String, Long> getBusyMillis();
+    Map<String, Double> getUtilisation();
+}
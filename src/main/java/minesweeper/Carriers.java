@@ -0,0 +1,83 @@
+package minesweeper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carrier pools that games run their processes on: the JVM's default scheduler shared with everything
+ * else, one pool shared by all games, or a pool per game, so one huge cascade can't starve the other
+ * boards. Pools are work-stealing fork-join pools or fixed pools of platform threads, of
+ * {@code parallelism} carriers. Selected at startup with {@code minesweeper.carriers},
+ * {@code minesweeper.carriers.pool} and {@code minesweeper.carriers.parallelism}. Windows, server
+ * sessions and players stay on the default scheduler.
+ */
+record Carriers(Carriers.Scope scope, Carriers.Pool pool, int parallelism) {
+
+    enum Scope {
+        DEFAULT,
+        SHARED,
+        GAME
+    }
+
+    enum Pool {
+        FORKJOIN,
+        FIXED
+    }
+
+    static final Carriers DEFAULT = new Carriers(Scope.DEFAULT, Pool.FORKJOIN, Runtime.getRuntime().availableProcessors());
+
+    private static final ConcurrentHashMap<Carriers, CarrierPool> SHARED_POOLS = new ConcurrentHashMap<>();
+    private static final AtomicLong GAME_POOLS = new AtomicLong();
+
+    Carriers {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("carrier parallelism must be positive: " + parallelism);
+        }
+    }
+
+    // fails at startup, rather than on the first game, if custom pools can't be built
+    static Carriers fromSystemProperties() {
+        var scope = System.getProperty("minesweeper.carriers");
+        var pool = System.getProperty("minesweeper.carriers.pool");
+        var carriers = new Carriers(
+                scope == null ? DEFAULT.scope : Scope.valueOf(scope.toUpperCase()),
+                pool == null ? DEFAULT.pool : Pool.valueOf(pool.toUpperCase()),
+                Integer.getInteger("minesweeper.carriers.parallelism", DEFAULT.parallelism));
+        if (carriers.scope != Scope.DEFAULT) {
+            CarrierPool.requireCustomPools();
+        }
+        return carriers;
+    }
+
+    // the pool for a new game; closing it after the game's processes end releases a per-game pool
+    CarrierPool forGame() {
+        return switch (scope) {
+            case DEFAULT -> CarrierPool.DEFAULT;
+            case SHARED -> SHARED_POOLS.computeIfAbsent(this, c -> c.newPool("shared", false));
+            case GAME -> newPool("game-" + GAME_POOLS.incrementAndGet(), true);
+        };
+    }
+
+    private CarrierPool newPool(String name, boolean owned) {
+        var threadName = "carrier-" + name + "-";
+        var executor = switch (pool) {
+            case FORKJOIN -> new ForkJoinPool(parallelism, p -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName(threadName + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, true); // FIFO, as the default scheduler
+            case FIXED -> Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name(threadName, 0).daemon().factory());
+        };
+        return new CarrierPool(name, executor, parallelism, owned);
+    }
+
+    @Override
+    public String toString() {
+        return scope == Scope.DEFAULT
+                ? "default"
+                : "%s %s(%d)".formatted(scope, pool, parallelism).toLowerCase();
+    }
+}
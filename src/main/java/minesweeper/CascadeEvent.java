@@ -0,0 +1,27 @@
+package minesweeper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("minesweeper.Cascade")
+@Label("Cascade")
+@Category("Minesweeper")
+@Description("From a tile press until the board settles")
+class CascadeEvent extends Event {
+
+    @Label("Row")
+    int row;
+
+    @Label("Column")
+    int col;
+
+    @Label("Cells Revealed")
+    int revealed;
+
+    @Label("State Changes")
+    int stateChanges;
+
+}
@@ -1,99 +1,169 @@
 package minesweeper;
 
-import java.util.List;
-
 class Cell {
 
     private final int row;
     private final int col;
-    private final boolean mine;
-    private final int neighborMines;
 
     private final Channel<CellSignal> inChannel;
-    private final List<Channel<CellSignal>> outChannels;
+    private final Channel<CellSignal>[] outChannels;
+    private final int[] neighborDirections; // of the cell behind each out channel, see Mode.direction
     private final Channel<GameSignal> stateChannel;
+    private final Quiescence quiescence;
 
+    private CellSignal.Generation generation;
+    private boolean mine;
+    private int neighborMines;
     private boolean revealed;
     private boolean flagged;
     private int neighborFlags;
+    // neighbors, by out channel, that need no reveal from this cell: those it has told, and those that sent it a
+    // reveal, as a cell only sends one once revealed. A flagged neighbor ignores a reveal, and is told again once
+    // it takes the flag off. Nothing is inferred about neighbors the sender shares with this cell, as one may
+    // have taken its flag off after the sender told it.
+    private int revealTold;
 
     Cell(
             int row,
             int col,
-            boolean mine,
-            int neighborMines,
             Channel<CellSignal> inChannel,
-            List<Channel<CellSignal>> outChannels,
-            Channel<GameSignal> stateChannel) {
+            Channel<CellSignal>[] outChannels,
+            int[] neighborDirections,
+            Channel<GameSignal> stateChannel,
+            Quiescence quiescence) {
         this.row = row;
         this.col = col;
-        this.mine = mine;
-        this.neighborMines = neighborMines;
         this.inChannel = inChannel;
         this.outChannels = outChannels;
+        this.neighborDirections = neighborDirections;
         this.stateChannel = stateChannel;
+        this.quiescence = quiescence;
     }
 
-    void start() {
-        Thread.ofVirtual().start(this::run);
+    void start(ProcessScope scope) {
+        scope.fork(this::run);
     }
 
     private void run() {
         while (true) {
-            switch (inChannel.take()) {
-                case LEFT_CLICK -> {
-                    if (revealed && neighborMines == neighborFlags) {
-                        revealNeighbors();
-                    } else {
-                        revealMe();
+            var signal = inChannel.take();
+            if (Metrics.ENABLED) {
+                Metrics.CELLS.count(signal, signal instanceof CellSignal.Neighbor n && n.generation() != generation.id());
+            }
+            switch (signal) {
+                case CellSignal.Command command -> {
+                    switch (command) {
+                        case LEFT_CLICK -> {
+                            if (revealed && neighborMines == neighborFlags) {
+                                revealNeighbors();
+                            } else if (revealMe()) {
+                                sendGameSignal();
+                            }
+                        }
+                        case RIGHT_CLICK -> {
+                            if (revealed && neighborMines == neighborFlags) {
+                                revealNeighbors();
+                            } else if (!revealed) {
+                                flagged = !flagged;
+                                tellNeighborsAboutFlag();
+                                sendGameSignal();
+                            }
+                        }
                     }
+                    quiescence.handled(1);
                 }
-                case RIGHT_CLICK -> {
-                    if (revealed && neighborMines == neighborFlags) {
-                        revealNeighbors();
-                    } else if (!revealed) {
-                        flagged = !flagged;
-                        tellNeighborsAboutFlag();
+                case CellSignal.Neighbor neighbor -> {
+                    if (neighbor.generation() == generation.id()) { // drop signals left over from a previous game
+                        // only a reveal changes what the game shows
+                        switch (neighbor.event()) {
+                            case REVEAL -> {
+                                revealTold |= channelBit(neighbor.from());
+                                if (revealMe()) {
+                                    sendGameSignal();
+                                }
+                            }
+                            case FLAG_SET -> neighborFlags++;
+                            case FLAG_UNSET -> {
+                                neighborFlags--;
+                                revealTold &= ~channelBit(neighbor.from());
+                            }
+                        }
                     }
+                    quiescence.handled(1); // stale or not, it was counted when sent
+                }
+                case CellSignal.Reset reset -> {
+                    generation = reset.generation();
+                    mine = false;
+                    neighborMines = 0;
+                    revealed = false;
+                    flagged = false;
+                    neighborFlags = 0;
+                    revealTold = 0;
                 }
-                case NEIGHBOR_REVEAL -> revealMe();
-                case NEIGHBOR_FLAG_SET -> neighborFlags++;
-                case NEIGHBOR_FLAG_UNSET -> neighborFlags--;
-                case STOP -> {
-                    return;
+                case CellSignal.Layout layout -> {
+                    mine = layout.mine();
+                    neighborMines = layout.neighborMines();
+                }
+                case CellSignal.Restore restore -> {
+                    mine = restore.mine();
+                    neighborMines = restore.neighborMines();
+                    revealed = restore.revealed();
+                    flagged = restore.flagged();
+                    neighborFlags = restore.neighborFlags();
+                    revealTold = 0;
                 }
             }
-            sendGameSignal();
         }
     }
 
     private void sendGameSignal() {
-        stateChannel.put(new GameSignal.StateChange(new CellState(row, col, mine, revealed, flagged, neighborMines)));
+        stateChannel.put(new GameSignal.StateChange(
+                new CellState(row, col, mine, revealed, flagged, neighborMines),
+                generation.id()));
     }
 
-    private void revealMe() {
+    private boolean revealMe() {
         if (!flagged && !revealed) {
             revealed = true;
             if (!mine && neighborMines == 0) {
                 revealNeighbors();
             }
+            return true;
         }
+        return false;
     }
 
     private void revealNeighbors() {
-        tellNeighbors(CellSignal.NEIGHBOR_REVEAL);
+        var untold = ~revealTold & ((1 << outChannels.length) - 1);
+        quiescence.sent(Integer.bitCount(untold));
+        revealTold |= untold;
+        for (int n = 0; n < outChannels.length; n++) {
+            if ((untold & 1 << n) != 0) {
+                outChannels[n].put(neighborSignal(CellSignal.NeighborEvent.REVEAL, n));
+            }
+        }
     }
 
     private void tellNeighborsAboutFlag() {
-        var signal = flagged
-                ? CellSignal.NEIGHBOR_FLAG_SET
-                : CellSignal.NEIGHBOR_FLAG_UNSET;
-        tellNeighbors(signal);
+        var event = flagged
+                ? CellSignal.NeighborEvent.FLAG_SET
+                : CellSignal.NeighborEvent.FLAG_UNSET;
+        quiescence.sent(outChannels.length);
+        for (int n = 0; n < outChannels.length; n++) {
+            outChannels[n].put(neighborSignal(event, n));
+        }
     }
 
-    private void tellNeighbors(CellSignal signal) {
-        for (var ch : outChannels) {
-            ch.put(signal);
+    private CellSignal.Neighbor neighborSignal(CellSignal.NeighborEvent event, int n) {
+        return generation.neighbor(event, Mode.opposite(neighborDirections[n]));
+    }
+
+    private int channelBit(int direction) {
+        for (int n = 0; n < neighborDirections.length; n++) {
+            if (neighborDirections[n] == direction) {
+                return 1 << n;
+            }
         }
+        throw new IllegalArgumentException("no neighbor in direction " + direction);
     }
 }
@@ -0,0 +1,198 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The rules of {@link Cell} for a rectangular block of cells held in arrays. Neighbor signals inside the
+ * block are handled on a local work stack, and those for cells outside it are handed to the border. Cells
+ * touched since the last {@link #report} are reported once, with their latest state.
+ */
+class CellBlock {
+
+    private static final CellSignal.NeighborEvent[] EVENTS = CellSignal.NeighborEvent.values();
+
+    interface Border {
+        void send(int index, CellSignal.Neighbor signal);
+    }
+
+    private final Mode mode;
+    private final int top;
+    private final int left;
+    private final int rows;
+    private final int cols;
+    private final Border border;
+
+    private CellSignal.Generation generation;
+    private final boolean[] mine;
+    private final byte[] neighborMines;
+    private final boolean[] revealed;
+    private final boolean[] flagged;
+    private final byte[] neighborFlags;
+
+    private int[] stack = new int[64]; // local index << 2 | neighbor event
+    private int stackSize;
+    private final boolean[] touched;
+    private final int[] touchedCells;
+    private int touchedCount;
+
+    CellBlock(Mode mode, int top, int left, int rows, int cols, Border border) {
+        this.mode = mode;
+        this.top = top;
+        this.left = left;
+        this.rows = rows;
+        this.cols = cols;
+        this.border = border;
+        var cells = rows * cols;
+        mine = new boolean[cells];
+        neighborMines = new byte[cells];
+        revealed = new boolean[cells];
+        flagged = new boolean[cells];
+        neighborFlags = new byte[cells];
+        touched = new boolean[cells];
+        touchedCells = new int[cells];
+    }
+
+    CellSignal.Generation generation() {
+        return generation;
+    }
+
+    void reset(CellSignal.Generation generation) {
+        this.generation = generation;
+        Arrays.fill(mine, false);
+        Arrays.fill(neighborMines, (byte) 0);
+        Arrays.fill(revealed, false);
+        Arrays.fill(flagged, false);
+        Arrays.fill(neighborFlags, (byte) 0);
+        for (int i = 0; i < touchedCount; i++) { // the game has moved on, nothing to report
+            touched[touchedCells[i]] = false;
+        }
+        touchedCount = 0;
+    }
+
+    void layout(int index, CellSignal.Layout layout) {
+        var i = local(index);
+        mine[i] = layout.mine();
+        neighborMines[i] = (byte) layout.neighborMines();
+    }
+
+    void restore(int index, CellSignal.Restore restore) {
+        var i = local(index);
+        mine[i] = restore.mine();
+        neighborMines[i] = (byte) restore.neighborMines();
+        revealed[i] = restore.revealed();
+        flagged[i] = restore.flagged();
+        neighborFlags[i] = (byte) restore.neighborFlags();
+    }
+
+    void command(int index, CellSignal.Command command) {
+        var i = local(index);
+        switch (command) {
+            case LEFT_CLICK -> {
+                if (revealed[i] && neighborMines[i] == neighborFlags[i]) {
+                    tellNeighbors(i, CellSignal.NeighborEvent.REVEAL);
+                } else if (revealMe(i)) {
+                    touch(i);
+                }
+            }
+            case RIGHT_CLICK -> {
+                if (revealed[i] && neighborMines[i] == neighborFlags[i]) {
+                    tellNeighbors(i, CellSignal.NeighborEvent.REVEAL);
+                } else if (!revealed[i]) {
+                    flagged[i] = !flagged[i];
+                    tellNeighbors(i, flagged[i] ? CellSignal.NeighborEvent.FLAG_SET : CellSignal.NeighborEvent.FLAG_UNSET);
+                    touch(i);
+                }
+            }
+        }
+        cascade();
+    }
+
+    void neighbor(int index, CellSignal.Neighbor neighbor) {
+        if (neighbor.generation() == generation.id()) { // drop signals left over from a previous game
+            onNeighbor(local(index), neighbor.event());
+            cascade();
+        }
+    }
+
+    void report(Consumer<GameSignal.StateChange> game) {
+        for (int n = 0; n < touchedCount; n++) {
+            var i = touchedCells[n];
+            touched[i] = false;
+            game.accept(new GameSignal.StateChange(
+                    new CellState(top + i / cols, left + i % cols, mine[i], revealed[i], flagged[i], neighborMines[i]),
+                    generation.id()));
+        }
+        touchedCount = 0;
+    }
+
+    // only a reveal changes what the game shows
+    private void onNeighbor(int i, CellSignal.NeighborEvent event) {
+        switch (event) {
+            case REVEAL -> {
+                if (revealMe(i)) {
+                    touch(i);
+                }
+            }
+            case FLAG_SET -> neighborFlags[i]++;
+            case FLAG_UNSET -> neighborFlags[i]--;
+        }
+    }
+
+    private void cascade() {
+        while (stackSize > 0) {
+            var entry = stack[--stackSize];
+            onNeighbor(entry >>> 2, EVENTS[entry & 3]);
+        }
+    }
+
+    private boolean revealMe(int i) {
+        if (!flagged[i] && !revealed[i]) {
+            revealed[i] = true;
+            if (!mine[i] && neighborMines[i] == 0) {
+                tellNeighbors(i, CellSignal.NeighborEvent.REVEAL);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void tellNeighbors(int i, CellSignal.NeighborEvent event) {
+        var row = top + i / cols;
+        var col = left + i % cols;
+        for (int r = Math.max(0, row - 1); r <= Math.min(mode.rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(mode.columns - 1, col + 1); c++) {
+                if (r == row && c == col) {
+                    continue;
+                }
+                if (r >= top && r < top + rows && c >= left && c < left + cols) {
+                    var j = (r - top) * cols + c - left;
+                    // cells in the block are known exactly, and a reveal can't change a revealed or flagged one
+                    if (event != CellSignal.NeighborEvent.REVEAL || !(revealed[j] || flagged[j])) {
+                        push(j, event);
+                    }
+                } else {
+                    border.send(mode.index(r, c), generation.neighbor(event, Mode.direction(row - r, col - c)));
+                }
+            }
+        }
+    }
+
+    private void push(int i, CellSignal.NeighborEvent event) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = i << 2 | event.ordinal();
+    }
+
+    private void touch(int i) {
+        if (!touched[i]) {
+            touched[i] = true;
+            touchedCells[touchedCount++] = i;
+        }
+    }
+
+    private int local(int index) {
+        return (mode.row(index) - top) * cols + mode.col(index) - left;
+    }
+}
@@ -0,0 +1,57 @@
+package minesweeper;
+
+/**
+ * One {@link Cell} process and inbox per tile.
+ */
+class CellEngine implements Engine {
+
+    private final Channel<CellSignal>[] cellChannels;
+    private final Quiescence quiescence;
+
+    CellEngine(Mode mode, Channels channels, Channel<GameSignal> gameChannel, ProcessScope scope) {
+        quiescence = new Quiescence(gameChannel);
+        cellChannels = newCellChannels(mode.cells());
+        for (int i = 0; i < cellChannels.length; i++) {
+            cellChannels[i] = channels.cellChannel(i);
+        }
+        for (int i = 0; i < mode.cells(); i++) {
+            var offsets = mode.neighborOffsets(i);
+            var neighborChannels = newCellChannels(offsets.length);
+            for (int n = 0; n < offsets.length; n++) {
+                neighborChannels[n] = cellChannels[i + offsets[n]];
+            }
+            new Cell(mode.row(i), mode.col(i), cellChannels[i], neighborChannels, mode.neighborDirections(i), gameChannel, quiescence)
+                    .start(scope);
+        }
+    }
+
+    @Override
+    public void reset(CellSignal.Generation generation) {
+        var reset = new CellSignal.Reset(generation);
+        for (var channel : cellChannels) {
+            channel.put(reset);
+        }
+    }
+
+    @Override
+    public void layout(int index, CellSignal.Layout layout) {
+        cellChannels[index].put(layout);
+    }
+
+    @Override
+    public void restore(int index, CellSignal.Restore restore) {
+        cellChannels[index].put(restore);
+    }
+
+    @Override
+    public void command(int index, CellSignal.Command command) {
+        quiescence.click();
+        cellChannels[index].put(command);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Channel<CellSignal>[] newCellChannels(int length) {
+        return (Channel<CellSignal>[]) new Channel<?>[length];
+    }
+
+}
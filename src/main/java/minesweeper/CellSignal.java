@@ -1,10 +1,59 @@
 package minesweeper;
 
-enum CellSignal {
-    LEFT_CLICK,
-    RIGHT_CLICK,
-    NEIGHBOR_REVEAL,
-    NEIGHBOR_FLAG_SET,
-    NEIGHBOR_FLAG_UNSET,
-    STOP
+sealed interface CellSignal {
+    enum Command implements CellSignal {
+        LEFT_CLICK,
+        RIGHT_CLICK
+    }
+
+    enum NeighborEvent {
+        REVEAL,
+        FLAG_SET,
+        FLAG_UNSET
+    }
+
+    // from is the sender's direction as seen by the receiver, see Mode.direction
+    record Neighbor(int generation, NeighborEvent event, int from) implements CellSignal {}
+
+    record Reset(Generation generation) implements CellSignal {}
+
+    // sent once mines are placed on the first left click, so unlike a reset it keeps any flags already set
+    record Layout(boolean mine, int neighborMines) implements CellSignal {
+        private static final int MAX_NEIGHBOR_MINES = 8;
+        private static final Layout[] LAYOUTS = new Layout[2 * (MAX_NEIGHBOR_MINES + 1)];
+
+        static {
+            for (int n = 0; n <= MAX_NEIGHBOR_MINES; n++) {
+                LAYOUTS[n] = new Layout(false, n);
+                LAYOUTS[MAX_NEIGHBOR_MINES + 1 + n] = new Layout(true, n);
+            }
+        }
+
+        static Layout of(boolean mine, int neighborMines) {
+            return LAYOUTS[(mine ? MAX_NEIGHBOR_MINES + 1 : 0) + neighborMines];
+        }
+    }
+
+    // a cell's whole state from a saved game, set without telling its neighbors
+    record Restore(boolean mine, int neighborMines, boolean revealed, boolean flagged, int neighborFlags) implements CellSignal {}
+
+    // signals shared by every cell of one game, so a new game allocates nothing per cell
+    record Generation(int id, Neighbor[] neighbors) {
+        private static final NeighborEvent[] EVENTS = NeighborEvent.values();
+        private static final int DIRECTIONS = 9;
+
+        static Generation of(int id) {
+            var neighbors = new Neighbor[EVENTS.length * DIRECTIONS];
+            for (var event : EVENTS) {
+                for (int from = 0; from < DIRECTIONS; from++) {
+                    neighbors[event.ordinal() * DIRECTIONS + from] = new Neighbor(id, event, from);
+                }
+            }
+            return new Generation(id, neighbors);
+        }
+
+        Neighbor neighbor(NeighborEvent event, int from) {
+            return neighbors[event.ordinal() * DIRECTIONS + from];
+        }
+    }
 }
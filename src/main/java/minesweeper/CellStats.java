@@ -0,0 +1,64 @@
+package minesweeper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+class CellStats implements CellStatsMXBean {
+
+    enum Signal {
+        LEFT_CLICK,
+        RIGHT_CLICK,
+        NEIGHBOR_REVEAL,
+        NEIGHBOR_FLAG_SET,
+        NEIGHBOR_FLAG_UNSET,
+        RESET,
+        LAYOUT,
+        RESTORE,
+        STALE
+    }
+
+    private final LongAdder[] counts = new LongAdder[Signal.values().length];
+
+    CellStats() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void count(CellSignal signal, boolean stale) {
+        var s = stale ? Signal.STALE : switch (signal) {
+            case CellSignal.Command c -> switch (c) {
+                case LEFT_CLICK -> Signal.LEFT_CLICK;
+                case RIGHT_CLICK -> Signal.RIGHT_CLICK;
+            };
+            case CellSignal.Neighbor n -> switch (n.event()) {
+                case REVEAL -> Signal.NEIGHBOR_REVEAL;
+                case FLAG_SET -> Signal.NEIGHBOR_FLAG_SET;
+                case FLAG_UNSET -> Signal.NEIGHBOR_FLAG_UNSET;
+            };
+            case CellSignal.Reset r -> Signal.RESET;
+            case CellSignal.Layout l -> Signal.LAYOUT;
+            case CellSignal.Restore r -> Signal.RESTORE;
+        };
+        counts[s.ordinal()].increment();
+    }
+
+    // neighbor signals sent, stale ones included
+    long neighborSignals() {
+        return counts[Signal.NEIGHBOR_REVEAL.ordinal()].sum()
+                + counts[Signal.NEIGHBOR_FLAG_SET.ordinal()].sum()
+                + counts[Signal.NEIGHBOR_FLAG_UNSET.ordinal()].sum()
+                + counts[Signal.STALE.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getSignalCounts() {
+        var map = new LinkedHashMap<String, Long>();
+        for (var s : Signal.values()) {
+            map.put(s.name(), counts[s.ordinal()].sum());
+        }
+        return map;
+    }
+
+}
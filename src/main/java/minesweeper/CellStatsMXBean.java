@@ -0,0 +1,7 @@
+package minesweeper;
+
+import java.util.Map;
+
+public interface CellStatsMXBean {
+    Map<String, Long> getSignalCounts();
+}
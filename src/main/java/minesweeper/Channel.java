@@ -1,26 +1,11 @@
 package minesweeper;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+interface Channel<T> {
 
-class Channel<T> {
+    void put(T val);
 
-    private final BlockingQueue<T> queue = new LinkedBlockingQueue<>();
+    T poll();
 
-    void put(T val) {
-        try {
-            queue.put(val);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    T take() {
-        try {
-            return queue.take();
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
+    T take();
 
 }
@@ -0,0 +1,15 @@
+package minesweeper;
+
+/**
+ * Thrown by a channel operation when the waiting process is interrupted, normally because its
+ * {@link ProcessScope} is closing. The thread's interrupt status is left set.
+ */
+class ChannelInterruptedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    ChannelInterruptedException(InterruptedException cause) {
+        super(null, cause, false, false); // routine on shutdown, so skip the stack trace
+    }
+
+}
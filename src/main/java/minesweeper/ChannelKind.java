@@ -0,0 +1,24 @@
+package minesweeper;
+
+enum ChannelKind {
+    QUEUE {
+        @Override
+        <T> Channel<T> create(int capacity) {
+            return new QueueChannel<>();
+        }
+    },
+    RING {
+        @Override
+        <T> Channel<T> create(int capacity) {
+            return new RingChannel<>(capacity);
+        }
+    },
+    RENDEZVOUS {
+        @Override
+        <T> Channel<T> create(int capacity) {
+            return new RendezvousChannel<>();
+        }
+    };
+
+    abstract <T> Channel<T> create(int capacity);
+}
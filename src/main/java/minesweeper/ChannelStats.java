@@ -0,0 +1,84 @@
+package minesweeper;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+class ChannelStats implements ChannelStatsMXBean {
+
+    private final String role;
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder takes = new LongAdder();
+    private final LongAdder depth = new LongAdder();
+    private final LongAdder putNanos = new LongAdder();
+    private final LongAdder blockedTakeNanos = new LongAdder();
+    private final AtomicLong highWaterMark = new AtomicLong();
+    private volatile int highWaterIndex = -1;
+
+    ChannelStats(String role) {
+        this.role = role;
+    }
+
+    String role() {
+        return role;
+    }
+
+    void onPutStart(int channelDepth, int index) {
+        depth.increment();
+        var max = highWaterMark.get();
+        while (channelDepth > max) {
+            if (highWaterMark.compareAndSet(max, channelDepth)) {
+                highWaterIndex = index;
+                break;
+            }
+            max = highWaterMark.get();
+        }
+    }
+
+    void onPutEnd(long nanos) {
+        puts.increment();
+        putNanos.add(nanos);
+    }
+
+    void onTake(long blockedNanos) {
+        depth.decrement();
+        takes.increment();
+        blockedTakeNanos.add(blockedNanos);
+    }
+
+    @Override
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    @Override
+    public long getTakes() {
+        return takes.sum();
+    }
+
+    @Override
+    public long getDepth() {
+        return depth.sum();
+    }
+
+    @Override
+    public long getHighWaterMark() {
+        return highWaterMark.get();
+    }
+
+    @Override
+    public String getHighWaterChannel() {
+        var index = highWaterIndex;
+        return index < 0 ? role : "%s[%d]".formatted(role, index);
+    }
+
+    @Override
+    public long getPutNanos() {
+        return putNanos.sum();
+    }
+
+    @Override
+    public long getBlockedTakeNanos() {
+        return blockedTakeNanos.sum();
+    }
+
+}
@@ -0,0 +1,11 @@
+package minesweeper;
+
+public interface ChannelStatsMXBean {
+    long getPuts();
+    long getTakes();
+    long getDepth();
+    long getHighWaterMark();
+    String getHighWaterChannel();
+    long getPutNanos();
+    long getBlockedTakeNanos();
+}
@@ -0,0 +1,66 @@
+package minesweeper;
+
+/**
+ * Channel implementations per role in the process network: cell inboxes, the game inbox and the
+ * window inbox. Selected at startup with the {@code minesweeper.channel.*} system properties.
+ */
+record Channels(ChannelKind cells, ChannelKind game, ChannelKind window, int cellCapacity, int capacity) {
+
+    static final Channels DEFAULT = new Channels(ChannelKind.QUEUE, ChannelKind.QUEUE, ChannelKind.QUEUE, 32, 1024);
+
+    // every neighbor may have a reveal and a flag signal in flight at once
+    private static final int MIN_CELL_CAPACITY = 16;
+
+    Channels {
+        // neighbors send to each other, so a cell network of rendezvous channels deadlocks on the first cascade
+        if (cells == ChannelKind.RENDEZVOUS) {
+            throw new IllegalArgumentException("cell channels must be buffered");
+        }
+        if (cellCapacity < MIN_CELL_CAPACITY) {
+            throw new IllegalArgumentException("cell channel capacity must be at least " + MIN_CELL_CAPACITY);
+        }
+    }
+
+    static Channels fromSystemProperties() {
+        return new Channels(
+                kind("minesweeper.channel.cells", DEFAULT.cells),
+                kind("minesweeper.channel.game", DEFAULT.game),
+                kind("minesweeper.channel.window", DEFAULT.window),
+                Integer.getInteger("minesweeper.channel.cellCapacity", DEFAULT.cellCapacity),
+                Integer.getInteger("minesweeper.channel.capacity", DEFAULT.capacity));
+    }
+
+    private static ChannelKind kind(String property, ChannelKind defaultKind) {
+        var value = System.getProperty(property);
+        return value == null ? defaultKind : ChannelKind.valueOf(value.toUpperCase());
+    }
+
+    <T> Channel<T> cellChannel(int index) {
+        return Metrics.meter(cells.create(cellCapacity), Metrics.CELL_CHANNELS, index);
+    }
+
+    // a region inbox takes the signals of all the cells around its border
+    <T> Channel<T> regionChannel(int index, int borderCells) {
+        return Metrics.meter(cells.create(cellCapacity * borderCells), Metrics.CELL_CHANNELS, index);
+    }
+
+    <T> Channel<T> gameChannel() {
+        return Metrics.meter(game.create(capacity), Metrics.GAME_CHANNELS, -1);
+    }
+
+    <T> Channel<T> windowChannel() {
+        return Metrics.meter(window.create(capacity), Metrics.WINDOW_CHANNELS, -1);
+    }
+
+    // for a remote window that may fall behind: a queue becomes a ring of the same capacity, so a slow client
+    // holds up its own game rather than piling up frames
+    <T> Channel<T> boundedWindowChannel() {
+        var kind = window == ChannelKind.QUEUE ? ChannelKind.RING : window;
+        return Metrics.meter(kind.create(capacity), Metrics.WINDOW_CHANNELS, -1);
+    }
+
+    @Override
+    public String toString() {
+        return "cells=%s game=%s window=%s".formatted(cells, game, window).toLowerCase();
+    }
+}
@@ -0,0 +1,244 @@
+package minesweeper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * A file of generated boards for batch analysis and benchmarks, read through memory maps. Each record is
+ * the first click the mines were placed around, then the packed {@link Board} cells, so a reader gets
+ * mines and neighbor counts without any decoding. Records have a fixed size and are read in place
+ * through a {@link View} that moves from record to record, so scanning millions of boards allocates
+ * nothing per board. A file is mapped in chunks of whole records, each under 2 GiB.
+ * <pre>
+ * header: magic:int version:byte rows:int columns:int mines:int boards:long algorithm:UTF seed:long mode:UTF
+ *         zero padding to 128 bytes
+ * record: first:int cell:byte * rows * columns
+ * </pre>
+ */
+final class Corpus {
+
+    private static final int MAGIC = 0x4D534243; // "MSBC"
+    private static final byte VERSION = 1;
+    private static final int HEADER_BYTES = 128;
+
+    private final Mode mode;
+    private final Seed seed;
+    private final long boards;
+    private final int recordBytes;
+    private final int boardsPerChunk;
+    private final MappedByteBuffer[] chunks;
+
+    private Corpus(Mode mode, Seed seed, long boards, MappedByteBuffer[] chunks) {
+        this.mode = mode;
+        this.seed = seed;
+        this.boards = boards;
+        this.chunks = chunks;
+        recordBytes = recordBytes(mode);
+        boardsPerChunk = boardsPerChunk(mode);
+    }
+
+    /**
+     * One record of the corpus, read in place. A view is moved rather than copied, so keep a {@link #board()}
+     * of any record needed after the view moves on.
+     */
+    final class View {
+        private ByteBuffer chunk;
+        private int offset;
+        private long position;
+
+        private void moveTo(long board) {
+            chunk = chunks[(int) (board / boardsPerChunk)];
+            offset = (int) (board % boardsPerChunk) * recordBytes;
+            position = board;
+        }
+
+        long position() {
+            return position;
+        }
+
+        int first() {
+            return chunk.getInt(offset);
+        }
+
+        byte get(int index) {
+            return chunk.get(offset + Integer.BYTES + index);
+        }
+
+        boolean mine(int index) {
+            return Board.hasMine(get(index));
+        }
+
+        int neighborMines(int index) {
+            return Board.neighborCount(get(index));
+        }
+
+        Board board() {
+            var cells = new byte[mode.cells()];
+            copyCells(cells);
+            return new Board(mode, cells);
+        }
+
+        void copyCells(byte[] into) {
+            chunk.get(offset + Integer.BYTES, into);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[0].equals("generate") && args.length >= 4 || args[0].equals("scan"))) {
+            System.err.println("usage: Corpus generate <file> <mode> <boards> | Corpus scan <file>");
+            System.exit(1);
+        }
+        var path = Path.of(args[1]);
+        var startNanos = System.nanoTime();
+        if (args[0].equals("generate")) {
+            var mode = Mode.parse(args[2]).orElseThrow(() -> new IllegalArgumentException("unknown mode: " + args[2]));
+            var boards = Long.parseLong(args[3]);
+            var seed = Seed.fromSystemProperties();
+            generate(path, mode, seed, boards);
+            System.out.printf("generated %d %s boards in %.3fs, seed=%d random=%s%n",
+                    boards, mode, (System.nanoTime() - startNanos) / 1e9, seed.value(), seed.algorithm());
+        } else {
+            var corpus = open(path);
+            var counts = new long[9];
+            corpus.forEach(view -> {
+                for (int i = 0; i < corpus.mode.cells(); i++) {
+                    if (!view.mine(i)) {
+                        counts[view.neighborMines(i)]++;
+                    }
+                }
+            });
+            var elapsedNanos = System.nanoTime() - startNanos;
+            System.out.printf("scanned %d %s boards in %.3fs (%.0f MB/s), seed=%d random=%s%n",
+                    corpus.boards, corpus.mode, elapsedNanos / 1e9,
+                    corpus.boards * corpus.recordBytes / (elapsedNanos / 1e3),
+                    corpus.seed.value(), corpus.seed.algorithm());
+            for (int n = 0; n < counts.length; n++) {
+                System.out.printf("  safe cells with %d neighbor mines: %.3f per board%n", n, counts[n] / (double) corpus.boards);
+            }
+        }
+    }
+
+    // boards from the same placement as a game: a random first click, kept clear along with its neighbors
+    static void generate(Path path, Mode mode, Seed seed, long boards) {
+        var random = seed.generator();
+        var placer = new MinePlacer(mode, random);
+        var board = new Board(mode);
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            writeHeader(out, mode, seed, boards);
+            for (long b = 0; b < boards; b++) {
+                var first = random.nextInt(mode.cells());
+                board.clear();
+                board.layMines(placer.place(first), mode.mines);
+                out.writeInt(first);
+                board.write(out);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, Mode mode, Seed seed, long boards) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(mode.rows);
+        out.writeInt(mode.columns);
+        out.writeInt(mode.mines);
+        out.writeLong(boards);
+        out.writeUTF(seed.algorithm());
+        out.writeLong(seed.value());
+        out.writeUTF(mode.name());
+        if (out.size() > HEADER_BYTES) {
+            throw new IllegalArgumentException("corpus header too long: " + seed.algorithm());
+        }
+        out.write(new byte[HEADER_BYTES - out.size()]);
+    }
+
+    static Corpus open(Path path) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("not a corpus file: " + path);
+            }
+            var version = header.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported corpus version: " + version);
+            }
+            var rows = header.getInt();
+            var columns = header.getInt();
+            var mines = header.getInt();
+            var boards = header.getLong();
+            var algorithm = readUTF(header);
+            var seed = new Seed(algorithm, header.getLong());
+            var mode = Mode.of(readUTF(header), rows, columns, mines);
+            var recordBytes = recordBytes(mode);
+            if (channel.size() < HEADER_BYTES + boards * recordBytes) {
+                throw new IllegalArgumentException("corpus file truncated: " + path);
+            }
+            var boardsPerChunk = boardsPerChunk(mode);
+            var chunks = new MappedByteBuffer[(int) Math.ceilDiv(boards, boardsPerChunk)];
+            for (int i = 0; i < chunks.length; i++) {
+                var first = (long) i * boardsPerChunk;
+                var count = Math.min(boardsPerChunk, boards - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * recordBytes, count * recordBytes);
+            }
+            return new Corpus(mode, seed, boards, chunks); // mappings outlive the channel
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    Mode mode() {
+        return mode;
+    }
+
+    Seed seed() {
+        return seed;
+    }
+
+    long size() {
+        return boards;
+    }
+
+    View view(long board) {
+        var view = new View();
+        view.moveTo(board);
+        return view;
+    }
+
+    void forEach(Consumer<View> action) {
+        forEach(0, boards, action);
+    }
+
+    // boards from inclusive to exclusive, through one view; ranges can be scanned in parallel, a view each
+    void forEach(long from, long to, Consumer<View> action) {
+        var view = new View();
+        for (long b = from; b < to; b++) {
+            view.moveTo(b);
+            action.accept(view);
+        }
+    }
+
+    private static int recordBytes(Mode mode) {
+        return Integer.BYTES + mode.cells();
+    }
+
+    private static int boardsPerChunk(Mode mode) {
+        return Integer.MAX_VALUE / recordBytes(mode);
+    }
+
+    private static String readUTF(ByteBuffer buffer) {
+        var bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,277 @@
+package minesweeper;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+import java.util.stream.LongStream;
+
+/**
+ * Difficulty statistics over many boards: 3BV, the fewest clicks that clear a board, its openings, the
+ * connected regions of zero cells that a single click clears, and the sizes of those regions. Boards
+ * are either generated or read from a {@link Corpus} file. Generated board {@code b} is the board that a
+ * game seeded with {@code seed + b}, as the server seeds them, places when first clicked at
+ * {@link #firstClick}. The click is drawn from a generator of its own, leaving the game's untouched.
+ * <p>
+ * Boards are analyzed in chunks on the common fork-join pool. Each worker keeps one board, a union-find
+ * of its cells in two int arrays and histograms, all reused from board to board, so a board allocates
+ * nothing but its two generators.
+ */
+public class Difficulty {
+
+    private static final int CHUNK = 4096; // boards per task
+
+    private final Mode mode;
+    private final long boards;
+    private final Seed seed; // for generated boards
+    private final Corpus corpus; // or the boards of a corpus
+
+    private Difficulty(Mode mode, long boards, Seed seed, Corpus corpus) {
+        this.mode = mode;
+        this.boards = boards;
+        this.seed = seed;
+        this.corpus = corpus;
+    }
+
+    static Difficulty generated(Mode mode, long boards, Seed seed) {
+        return new Difficulty(mode, boards, seed, null);
+    }
+
+    static Difficulty of(Corpus corpus) {
+        return new Difficulty(corpus.mode(), corpus.size(), corpus.seed(), corpus);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: Difficulty <mode> <boards> [seed] | Difficulty corpus <file>");
+            System.exit(1);
+        }
+        Difficulty difficulty;
+        if (args[0].equals("corpus")) {
+            difficulty = of(Corpus.open(Path.of(args[1])));
+        } else {
+            var mode = Mode.parse(args[0]).orElseThrow(() -> new IllegalArgumentException("unknown mode: " + args[0]));
+            var seed = Seed.fromSystemProperties();
+            if (args.length > 2) {
+                seed = seed.withValue(Long.parseLong(args[2]));
+            }
+            difficulty = generated(mode, Long.parseLong(args[1]), seed);
+        }
+        var startNanos = System.nanoTime();
+        var tally = difficulty.run();
+        var elapsedNanos = System.nanoTime() - startNanos;
+        System.out.printf("mode=%s boards=%d %s seed=%d random=%s%n",
+                difficulty.mode, tally.boards, difficulty.corpus == null ? "generated" : "from corpus",
+                difficulty.seed.value(), difficulty.seed.algorithm());
+        System.out.printf("elapsed=%.3fs boards/s=%.0f boards/h=%.3g%n",
+                elapsedNanos / 1e9, tally.boards / (elapsedNanos / 1e9), tally.boards / (elapsedNanos / 3.6e12));
+        System.out.print(tally.summary());
+    }
+
+    Tally run() {
+        var chunks = Math.ceilDiv(boards, CHUNK);
+        return LongStream.range(0, chunks)
+                .parallel()
+                .collect(() -> new Tally(mode), this::analyzeChunk, Tally::merge);
+    }
+
+    private void analyzeChunk(Tally tally, long chunk) {
+        var from = chunk * CHUNK;
+        var to = Math.min(boards, from + CHUNK);
+        if (corpus != null) {
+            corpus.forEach(from, to, view -> {
+                view.copyCells(tally.cells);
+                tally.analyze();
+            });
+        } else {
+            var factory = RandomGeneratorFactory.of(seed.algorithm());
+            for (long b = from; b < to; b++) {
+                tally.generate(factory.create(seed.value() + b), firstClick(seed, b, mode));
+                tally.analyze();
+            }
+        }
+    }
+
+    // the cell board b is first clicked at
+    static int firstClick(Seed seed, long board, Mode mode) {
+        return new SplittableRandom(seed.value() + board).nextInt(mode.cells());
+    }
+
+    /**
+     * Distributions over the boards analyzed so far, and the scratch arrays of the worker analyzing them.
+     * Histograms are indexed by value, none of which can exceed the number of cells.
+     */
+    static final class Tally {
+        private final Mode mode;
+        private final byte[] cells;
+        private final Board board;
+        private final MinePlacer placer;
+        private final int[] parent; // union-find over zero cells, a root is its own parent
+        private final int[] size; // of the region, at its root
+
+        private long boards;
+        private final long[] bbbv;
+        private final long[] openings;
+        private final long[] regionSizes; // zero cells per opening, over all openings
+        private final long[] largestRegion; // per board, 0 without openings
+
+        Tally(Mode mode) {
+            this.mode = mode;
+            cells = new byte[mode.cells()];
+            board = new Board(mode, cells);
+            placer = new MinePlacer(mode, null);
+            parent = new int[mode.cells()];
+            size = new int[mode.cells()];
+            bbbv = new long[mode.cells() + 1];
+            openings = new long[mode.cells() + 1];
+            regionSizes = new long[mode.cells() + 1];
+            largestRegion = new long[mode.cells() + 1];
+        }
+
+        // as a new game on this generator places mines around its first click
+        void generate(RandomGenerator random, int first) {
+            placer.reset(random);
+            board.clear();
+            board.layMines(placer.place(first), mode.mines);
+        }
+
+        void analyze() {
+            var columns = mode.columns;
+            for (int r = 0, i = 0; r < mode.rows; r++) {
+                for (int c = 0; c < columns; c++, i++) {
+                    if (!zero(i)) {
+                        continue;
+                    }
+                    parent[i] = i;
+                    size[i] = 1;
+                    // neighbors already visited: west, north-west, north, north-east
+                    if (c > 0 && zero(i - 1)) {
+                        union(i, i - 1);
+                    }
+                    if (r > 0) {
+                        var north = i - columns;
+                        if (c > 0 && zero(north - 1)) {
+                            union(i, north - 1);
+                        }
+                        if (zero(north)) {
+                            union(i, north);
+                        }
+                        if (c < columns - 1 && zero(north + 1)) {
+                            union(i, north + 1);
+                        }
+                    }
+                }
+            }
+            var regions = 0;
+            var largest = 0;
+            var isolated = 0; // numbered cells next to no opening, a click each
+            for (int i = 0; i < cells.length; i++) {
+                if (zero(i)) {
+                    if (parent[i] == i) {
+                        regions++;
+                        regionSizes[size[i]]++;
+                        largest = Math.max(largest, size[i]);
+                    }
+                } else if (!board.mine(i) && !nextToZero(i)) {
+                    isolated++;
+                }
+            }
+            boards++;
+            bbbv[regions + isolated]++;
+            openings[regions]++;
+            largestRegion[largest]++;
+        }
+
+        private boolean zero(int index) {
+            var cell = cells[index];
+            return !Board.hasMine(cell) && Board.neighborCount(cell) == 0;
+        }
+
+        private boolean nextToZero(int index) {
+            for (var offset : mode.neighborOffsets(index)) {
+                if (zero(index + offset)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // by size, so trees stay shallow
+        private void union(int a, int b) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return;
+            }
+            if (size[a] < size[b]) {
+                var t = a;
+                a = b;
+                b = t;
+            }
+            parent[b] = a;
+            size[a] += size[b];
+        }
+
+        // with path halving
+        private int find(int index) {
+            while (parent[index] != index) {
+                parent[index] = parent[parent[index]];
+                index = parent[index];
+            }
+            return index;
+        }
+
+        Tally merge(Tally other) {
+            boards += other.boards;
+            for (int i = 0; i < bbbv.length; i++) {
+                bbbv[i] += other.bbbv[i];
+                openings[i] += other.openings[i];
+                regionSizes[i] += other.regionSizes[i];
+                largestRegion[i] += other.largestRegion[i];
+            }
+            return this;
+        }
+
+        String summary() {
+            var sb = new StringBuilder();
+            sb.append(line("3bv", bbbv));
+            sb.append(line("openings", openings));
+            sb.append(line("largest opening", largestRegion));
+            sb.append(line("opening size", regionSizes));
+            sb.append("boards without openings: %.2f%%%n".formatted(100.0 * openings[0] / Math.max(1, boards)));
+            return sb.toString();
+        }
+
+        private static String line(String name, long[] histogram) {
+            var count = 0L;
+            var sum = 0.0;
+            var min = -1;
+            var max = 0;
+            for (int v = 0; v < histogram.length; v++) {
+                if (histogram[v] > 0) {
+                    count += histogram[v];
+                    sum += (double) v * histogram[v];
+                    min = min < 0 ? v : min;
+                    max = v;
+                }
+            }
+            return "%s: mean=%.2f min=%d p10=%d p50=%d p90=%d p99=%d max=%d%n".formatted(
+                    name, sum / Math.max(1, count), Math.max(0, min),
+                    percentile(histogram, count, 0.10), percentile(histogram, count, 0.50),
+                    percentile(histogram, count, 0.90), percentile(histogram, count, 0.99), max);
+        }
+
+        private static int percentile(long[] histogram, long count, double p) {
+            var rank = (long) Math.ceil(p * count);
+            var seen = 0L;
+            for (int v = 0; v < histogram.length; v++) {
+                seen += histogram[v];
+                if (seen >= Math.max(1, rank)) {
+                    return v;
+                }
+            }
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package minesweeper;
+
+/**
+ * Runs the board rules for a {@link Game}. The game hands it resets, mine layouts, restored cells and clicks
+ * by cell index, and cell states come back as {@link GameSignal.StateChange} signals: through the game
+ * channel from engines with processes of their own, or straight to the game from one that runs in the
+ * game's process. Once the cascades of every click have run out, a {@link GameSignal.Settled} follows the
+ * last state change.
+ */
+interface Engine {
+
+    // clears every cell for a new game; state changes tagged with an older generation are stale
+    void reset(CellSignal.Generation generation);
+
+    void layout(int index, CellSignal.Layout layout);
+
+    // sets a reset cell to its state in a saved game, with no cascade and no report
+    void restore(int index, CellSignal.Restore restore);
+
+    void command(int index, CellSignal.Command command);
+
+}
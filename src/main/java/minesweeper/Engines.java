@@ -0,0 +1,61 @@
+package minesweeper;
+
+import java.util.function.Consumer;
+
+/**
+ * Engine that runs the board: a process per cell, a process per rectangular region of {@code regionRows}
+ * by {@code regionColumns} cells, or no processes at all, with cells updated in the game's own process.
+ * Selected at startup with {@code minesweeper.engine} and {@code minesweeper.regionSize}, given as
+ * {@code N} or {@code ROWSxCOLUMNS}.
+ */
+record Engines(Engines.Kind kind, int regionRows, int regionColumns) {
+
+    enum Kind {
+        CELLS,
+        REGIONS,
+        SEQUENTIAL
+    }
+
+    static final Engines DEFAULT = new Engines(Kind.CELLS, 32, 32);
+
+    Engines {
+        if (regionRows < 1 || regionColumns < 1) {
+            throw new IllegalArgumentException("region size must be positive: %dx%d".formatted(regionRows, regionColumns));
+        }
+    }
+
+    static Engines fromSystemProperties() {
+        var kind = System.getProperty("minesweeper.engine");
+        var size = System.getProperty("minesweeper.regionSize");
+        var rows = DEFAULT.regionRows;
+        var columns = DEFAULT.regionColumns;
+        if (size != null) {
+            var parts = size.toLowerCase().split("x");
+            rows = Integer.parseInt(parts[0]);
+            columns = parts.length > 1 ? Integer.parseInt(parts[1]) : rows;
+        }
+        return new Engines(kind == null ? DEFAULT.kind : Kind.valueOf(kind.toUpperCase()), rows, columns);
+    }
+
+    // engines with processes fork them into the game's scope and report through the game channel,
+    // the sequential engine straight to the game
+    Engine create(
+            Mode mode,
+            Channels channels,
+            Channel<GameSignal> gameChannel,
+            Consumer<GameSignal> game,
+            ProcessScope scope) {
+        return switch (kind) {
+            case CELLS -> new CellEngine(mode, channels, gameChannel, scope);
+            case REGIONS -> new RegionEngine(mode, channels, regionRows, regionColumns, gameChannel, scope);
+            case SEQUENTIAL -> new SequentialEngine(mode, game);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.REGIONS
+                ? "regions %dx%d".formatted(regionRows, regionColumns)
+                : kind.name().toLowerCase();
+    }
+}
@@ -1,161 +1,420 @@
 package minesweeper;
 
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiFunction;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
 
-class Game {
+class Game implements AutoCloseable {
+
+    private static final int MAX_BATCH = 4096; // bound on signals merged into one frame during long cascades
 
     private final Mode mode;
+    private final Engine engine;
+    private final CarrierPool carriers;
+    private final ProcessScope scope; // the game loop, cell processes and clock ticks, on the game's carriers
+    private final MinePlacer minePlacer;
     private final Channel<GameState> windowChannel;
     private final Channel<GameSignal> gameChannel;
 
-    private List<List<Channel<CellSignal>>> cellChannels;
+    private int generation;
+    private final BitSet laidOut = new BitSet();
 
     private long startNanos;
     private long elapsedSeconds;
+    private TimerWheel.Timeout tick; // due on the next whole second of play
     private PlayState playState;
-    private CellState[][] cellStates;
+    private Board board;
+    private int revealedSafe;
+    private boolean revealedMine;
+    private int flags;
+
+    private long seq;
+    private final BitSet dirty = new BitSet();
+    private int[] dirtyCells = new int[16];
+    private int dirtyCount;
+    private boolean changed;
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder mergedSignals = new LongAdder();
 
-    Game(Mode mode, Channel<GameState> windowChannel, Channel<GameSignal> gameChannel) {
+    private CascadeEvent cascade; // open from a press until the board settles
+    private int cascadeRevealed;
+
+    // presses since the board last settled, with the time of the first and the cells revealed since
+    private int settlingPresses;
+    private long settlingSinceNanos;
+    private int settlingRevealed;
+    private long engineClicks; // clicks handed to the engine
+    private boolean engineBusy; // with clicks that haven't settled
+
+    Game(
+            Mode mode,
+            Channels channels,
+            Engines engines,
+            Carriers carriers,
+            RandomGenerator random,
+            Channel<GameState> windowChannel,
+            Channel<GameSignal> gameChannel) {
         this.mode = mode;
+        this.carriers = carriers.forGame();
+        scope = new ProcessScope("game", this.carriers);
+        minePlacer = new MinePlacer(mode, random);
         this.windowChannel = windowChannel;
         this.gameChannel = gameChannel;
         playState = PlayState.INIT;
+        board = new Board(mode);
+        engine = engines.create(mode, channels, gameChannel, this::onSignal, scope);
         resetCells();
     }
 
     void start() {
-        Thread.ofVirtual().start(this::run);
+        scope.fork(this::run);
+    }
+
+    // stops every process of the game and waits for them to end
+    @Override
+    public void close() {
+        scope.close();
+        carriers.close();
+    }
+
+    // resumes a saved game; the mode is checked here, as a failure in the game loop would end the game
+    void restore(GameState.Snapshot saved) {
+        if (!fits(saved)) {
+            throw new IllegalArgumentException("saved game is %s, not %s".formatted(saved.board().mode(), mode));
+        }
+        gameChannel.put(new GameSignal.Restore(saved));
+    }
+
+    private boolean fits(GameState.Snapshot saved) {
+        var savedMode = saved.board().mode();
+        return savedMode.rows == mode.rows && savedMode.columns == mode.columns && savedMode.mines == mode.mines;
+    }
+
+    int generation() {
+        return generation;
+    }
+
+    long frames() {
+        return frames.sum();
+    }
+
+    long mergedSignals() {
+        return mergedSignals.sum();
     }
 
     private void run() {
+        try {
+            loop();
+        } finally {
+            cancelTick(); // here, as the tick belongs to the loop
+        }
+    }
+
+    private void loop() {
+        publishSnapshot();
         while (true) {
-            switch (gameChannel.take()) {
-                case GameSignal.TilePress tp -> onTilePress(tp);
-                case GameSignal.StateChange sc -> onStateChange(sc);
-                case GameSignal.ClockTick ct -> onClockTick(ct);
-                case GameSignal.FacePress fp -> onFacePress(fp);
+            onSignal(gameChannel.take());
+            var merged = 1;
+            while (merged < MAX_BATCH) {
+                var signal = gameChannel.poll();
+                if (signal == null) {
+                    break;
+                }
+                onSignal(signal);
+                merged++;
+            }
+            if (changed) {
+                publishChanges();
+                mergedSignals.add(merged);
             }
         }
     }
 
+    void onSignal(GameSignal signal) {
+        if (Metrics.ENABLED) {
+            Metrics.GAMES.count(signal);
+        }
+        switch (signal) {
+            case GameSignal.TilePress tp -> onTilePress(tp);
+            case GameSignal.StateChange sc -> {
+                if (Metrics.ENABLED) {
+                    var start = System.nanoTime();
+                    onStateChange(sc);
+                    Metrics.GAMES.stateChange(System.nanoTime() - start);
+                } else {
+                    onStateChange(sc);
+                }
+            }
+            case GameSignal.ClockTick ct -> onClockTick(ct);
+            case GameSignal.FacePress fp -> onFacePress(fp);
+            case GameSignal.SnapshotRequest sr -> publishSnapshot();
+            case GameSignal.Restore r -> onRestore(r.snapshot());
+            case GameSignal.Settled st -> onSettled(st);
+        }
+    }
+
     private void onTilePress(GameSignal.TilePress tp) {
+        if (settlingPresses++ == 0) {
+            settlingSinceNanos = System.nanoTime();
+            settlingRevealed = 0;
+        }
+        if (playState == PlayState.WON || playState == PlayState.LOST) {
+            if (!engineBusy) { // ignored, and nothing else to wait for
+                publishSettled();
+            }
+            return;
+        }
         if (tp.clickSide() == ClickSide.LEFT && playState == PlayState.INIT) {
             playState = PlayState.PLAYING;
             startNanos = System.nanoTime();
+            scheduleTick();
+            placeMines(mode.index(tp.row(), tp.col()));
         }
         var signal = tp.clickSide() == ClickSide.LEFT
-                ? CellSignal.LEFT_CLICK
-                : CellSignal.RIGHT_CLICK;
-        cellChannels.get(tp.row()).get(tp.col()).put(signal);
+                ? CellSignal.Command.LEFT_CLICK
+                : CellSignal.Command.RIGHT_CLICK;
+        beginCascade(tp);
+        engineClicks++;
+        engineBusy = true;
+        engine.command(mode.index(tp.row(), tp.col()), signal);
+    }
+
+    private void onSettled(GameSignal.Settled st) {
+        if (st.clicks() != (engineClicks & Quiescence.CLICK_MASK)) { // a later click is still running
+            return;
+        }
+        engineBusy = false;
+        endCascade();
+        if (settlingPresses > 0) { // otherwise a reset has dropped the presses
+            if (changed) {
+                publishChanges();
+            }
+            publishSettled();
+        }
+    }
+
+    private void beginCascade(GameSignal.TilePress tp) {
+        endCascade();
+        var event = new CascadeEvent();
+        if (event.isEnabled()) {
+            event.row = tp.row();
+            event.col = tp.col();
+            event.begin();
+            cascade = event;
+            cascadeRevealed = revealedSafe;
+        }
+    }
+
+    private void endCascade() {
+        if (cascade != null) {
+            cascade.end();
+            cascade.revealed = revealedSafe - cascadeRevealed;
+            cascade.commit();
+            cascade = null;
+        }
     }
 
     private void onStateChange(GameSignal.StateChange sc) {
+        if (sc.generation() != generation) { // cell was still busy with the previous game
+            return;
+        }
+        if (cascade != null) {
+            cascade.stateChanges++;
+        }
         var cs = sc.cellState();
-        cellStates[cs.row()][cs.col()] = cs;
+        count(cs);
+        board.set(cs);
+        markDirty(mode.index(cs.row(), cs.col()));
         if (playState == PlayState.PLAYING) {
             if (lost()) {
                 playState = PlayState.LOST;
-                stopCells();
+                cancelTick();
             } else if (won()) {
                 playState = PlayState.WON;
-                stopCells();
+                cancelTick();
             }
         }
-        updateWindow();
+        changed = true;
     }
 
     private void onClockTick(GameSignal.ClockTick ct) {
-        if (playState == PlayState.PLAYING) {
+        if (ct.generation() == generation && playState == PlayState.PLAYING) {
             elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
-            updateWindow();
+            changed = true;
+            scheduleTick();
+        }
+    }
+
+    private void scheduleTick() {
+        var signal = new GameSignal.ClockTick(generation);
+        var deadline = startNanos + TimeUnit.SECONDS.toNanos(elapsedSeconds + 1);
+        tick = TimerWheel.SHARED.schedule(deadline, () -> scope.fork(() -> gameChannel.put(signal)));
+    }
+
+    private void cancelTick() {
+        if (tick != null) {
+            tick.cancel();
+            tick = null;
         }
     }
 
     private void onFacePress(GameSignal.FacePress fp) {
+        endCascade();
+        cancelTick();
+        settlingPresses = 0;
         playState = PlayState.INIT;
         elapsedSeconds = 0;
-        stopCells();
         resetCells();
+        publishSnapshot();
+    }
+
+    // picks up a saved game where it left off: cells are reset and then given their saved state, so nothing
+    // cascades, and the clock resumes from the saved time
+    private void onRestore(GameState.Snapshot saved) {
+        if (!fits(saved)) { // sent on the channel rather than through restore
+            System.err.printf("ignoring saved game of %s, not %s%n", saved.board().mode(), mode);
+            return;
+        }
+        endCascade();
+        cancelTick();
+        settlingPresses = 0;
+        resetCells();
+        board = saved.board().copy();
+        for (int i = 0; i < mode.cells(); i++) {
+            if (board.revealed(i)) {
+                if (board.mine(i)) {
+                    revealedMine = true;
+                } else {
+                    revealedSafe++;
+                }
+            }
+            if (board.flagged(i)) {
+                flags++;
+            }
+            var neighborFlags = board.neighborFlags(i);
+            if (board.get(i) != 0 || neighborFlags != 0) {
+                engine.restore(i, new CellSignal.Restore(
+                        board.mine(i), board.neighborMines(i), board.revealed(i), board.flagged(i), neighborFlags));
+            }
+        }
+        playState = saved.state();
+        elapsedSeconds = saved.time();
+        if (playState == PlayState.PLAYING) {
+            startNanos = System.nanoTime() - TimeUnit.SECONDS.toNanos(elapsedSeconds);
+            scheduleTick();
+        }
+        publishSnapshot();
+    }
+
+    private void markDirty(int index) {
+        if (!dirty.get(index)) {
+            dirty.set(index);
+            if (dirtyCount == dirtyCells.length) {
+                dirtyCells = Arrays.copyOf(dirtyCells, dirtyCount * 2);
+            }
+            dirtyCells[dirtyCount++] = index;
+        }
+    }
+
+    private void publishChanges() {
         updateWindow();
+        frames.increment();
+        if (Metrics.ENABLED) {
+            Metrics.GAMES.frame();
+        }
+    }
+
+    private void publishSettled() {
+        windowChannel.put(new GameState.Settled(++seq, playState, elapsedSeconds, flags,
+                settlingPresses, settlingRevealed, System.nanoTime() - settlingSinceNanos));
+        settlingPresses = 0;
     }
 
     private void updateWindow() {
-        var cells = new CellState[mode.rows][mode.columns];
-        mode.rowCols().forEach(rc -> cells[rc.row()][rc.col()] = cellStates[rc.row()][rc.col()]);
-        windowChannel.put(new GameState(cells, playState, elapsedSeconds));
+        if (dirtyCount == 0) { // only the clock moved
+            changed = false;
+            windowChannel.put(new GameState.Status(++seq, playState, elapsedSeconds, flags));
+            return;
+        }
+        var cells = Arrays.copyOf(dirtyCells, dirtyCount);
+        var values = new byte[dirtyCount];
+        for (int i = 0; i < dirtyCount; i++) {
+            values[i] = board.get(cells[i]);
+            dirty.clear(cells[i]);
+        }
+        dirtyCount = 0;
+        changed = false;
+        windowChannel.put(new GameState.Delta(++seq, cells, values, playState, elapsedSeconds, flags));
+    }
+
+    private void publishSnapshot() {
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty.clear(dirtyCells[i]);
+        }
+        dirtyCount = 0;
+        changed = false;
+        windowChannel.put(new GameState.Snapshot(++seq, board.copy(), playState, elapsedSeconds, flags));
+    }
+
+    private void count(CellState cs) {
+        var r = cs.row();
+        var c = cs.col();
+        if (cs.revealed() && !board.revealed(r, c)) {
+            settlingRevealed++;
+            if (Metrics.ENABLED) {
+                Metrics.GAMES.revealed();
+            }
+            if (cs.mine()) {
+                revealedMine = true;
+            } else {
+                revealedSafe++;
+            }
+        }
+        if (cs.flagged() != board.flagged(r, c)) {
+            flags += cs.flagged() ? 1 : -1;
+        }
     }
 
     private boolean lost() {
-        return Stream.of(cellStates)
-                .flatMap(Stream::of)
-                .anyMatch(c -> c.revealed() && c.mine());
+        return revealedMine;
     }
 
     private boolean won() {
-        return Stream.of(cellStates)
-                .flatMap(Stream::of)
-                .filter(CellState::revealed)
-                .count() == mode.nonMines();
-    }
-
-    private void stopCells() {
-        cellChannels.stream().flatMap(List::stream).forEach(c -> c.put(CellSignal.STOP));
-    }
-
-    private void resetCells() {
-        var mines = placeMines();
-
-        cellChannels = IntStream.range(0, mode.rows)
-                .mapToObj(r -> IntStream.range(0, mode.columns).mapToObj(c -> new Channel<CellSignal>()).toList())
-                .toList();
-
-        BiFunction<Integer, Integer, Integer> neighborMines = (r, c) ->
-                mode.neighborRowCols(r, c).mapToInt(rc -> mines[rc.row()][rc.col()] ? 1 : 0).sum();
-
-        BiFunction<Integer, Integer, List<Channel<CellSignal>>> neighborChannels = (r, c) ->
-                mode.neighborRowCols(r, c).map(rc -> cellChannels.get(rc.row()).get(rc.col())).toList();
-
-        var cells = new Cell[mode.rows][mode.columns];
-        mode.rowCols().forEach(rc -> {
-            var r = rc.row();
-            var c = rc.col();
-            cells[r][c] = new Cell(
-                    r,
-                    c,
-                    mines[r][c],
-                    neighborMines.apply(r, c),
-                    cellChannels.get(r).get(c),
-                    neighborChannels.apply(r, c),
-                    gameChannel);
-            cells[r][c].start();
-        });
-
-        cellStates = new CellState[mode.rows][mode.columns];
-        mode.rowCols().forEach(rc -> {
-            var r = rc.row();
-            var c = rc.col();
-            cellStates[r][c] = new CellState(r, c, mines[r][c], false, false, neighborMines.apply(r, c));
-        });
-    }
-
-    private boolean[][] placeMines() {
-        var numMines = mode.mines;
-        var random = new Random();
-        var mines = new boolean[mode.rows][mode.columns];
-        while (numMines > 0) {
-            var r = random.nextInt(mode.rows);
-            var c = random.nextInt(mode.columns);
-            if (!mines[r][c]) {
-                mines[r][c] = true;
-                numMines--;
+        return revealedSafe == mode.nonMines();
+    }
+
+    // reuses the running cell processes: each is cleared for the new game, and signals from older games are discarded
+    void resetCells() {
+        board.clear();
+        revealedSafe = 0;
+        revealedMine = false;
+        flags = 0;
+        engine.reset(CellSignal.Generation.of(++generation));
+    }
+
+    // cells are already reset, so layouts go to the mines and their numbered neighbors only, ahead of the
+    // click in each inbox
+    private void placeMines(int first) {
+        var mines = minePlacer.place(first);
+        board.layMines(mines, mode.mines);
+        for (int i = 0; i < mode.mines; i++) {
+            var mine = mines[i];
+            sendLayout(mine);
+            for (var offset : mode.neighborOffsets(mine)) {
+                sendLayout(mine + offset);
             }
         }
-        return mines;
+        laidOut.clear();
+    }
+
+    private void sendLayout(int index) {
+        if (!laidOut.get(index)) {
+            laidOut.set(index);
+            engine.layout(index, CellSignal.Layout.of(board.mine(index), board.neighborMines(index)));
+        }
     }
 
 }
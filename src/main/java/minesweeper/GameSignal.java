@@ -3,6 +3,9 @@ package minesweeper;
 sealed interface GameSignal {
     record TilePress(int row, int col, ClickSide clickSide) implements GameSignal {}
     record FacePress() implements GameSignal {}
-    record StateChange(CellState cellState) implements GameSignal {}
-    record ClockTick() implements GameSignal {}
+    record StateChange(CellState cellState, int generation) implements GameSignal {}
+    record ClockTick(int generation) implements GameSignal {}
+    record SnapshotRequest() implements GameSignal {}
+    record Restore(GameState.Snapshot snapshot) implements GameSignal {} // picks up a saved game
+    record Settled(long clicks) implements GameSignal {} // no cell has work left from the first clicks, see Quiescence
 }
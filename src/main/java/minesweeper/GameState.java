@@ -1,3 +1,14 @@
 package minesweeper;
 
-record GameState(CellState[][] cellStates, PlayState state, long time) {}
+sealed interface GameState {
+    long seq();
+    PlayState state();
+    long time();
+    int flags();
+
+    record Snapshot(long seq, Board board, PlayState state, long time, int flags) implements GameState {}
+    record Delta(long seq, int[] cells, byte[] values, PlayState state, long time, int flags) implements GameState {}
+    record Status(long seq, PlayState state, long time, int flags) implements GameState {} // no cells changed
+    // the presses since the last settled frame have run their course, and every cell they changed has been sent
+    record Settled(long seq, PlayState state, long time, int flags, int presses, int revealed, long nanos) implements GameState {}
+}
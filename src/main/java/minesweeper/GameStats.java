@@ -0,0 +1,79 @@
+package minesweeper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+class GameStats implements GameStatsMXBean {
+
+    enum Signal {
+        TILE_PRESS,
+        FACE_PRESS,
+        STATE_CHANGE,
+        CLOCK_TICK,
+        SNAPSHOT_REQUEST,
+        RESTORE,
+        SETTLED
+    }
+
+    private final LongAdder[] counts = new LongAdder[Signal.values().length];
+    private final LongAdder stateChangeNanos = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder revealedCells = new LongAdder();
+
+    GameStats() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void count(GameSignal signal) {
+        var s = switch (signal) {
+            case GameSignal.TilePress tp -> Signal.TILE_PRESS;
+            case GameSignal.FacePress fp -> Signal.FACE_PRESS;
+            case GameSignal.StateChange sc -> Signal.STATE_CHANGE;
+            case GameSignal.ClockTick ct -> Signal.CLOCK_TICK;
+            case GameSignal.SnapshotRequest sr -> Signal.SNAPSHOT_REQUEST;
+            case GameSignal.Restore r -> Signal.RESTORE;
+            case GameSignal.Settled st -> Signal.SETTLED;
+        };
+        counts[s.ordinal()].increment();
+    }
+
+    void stateChange(long nanos) {
+        stateChangeNanos.add(nanos);
+    }
+
+    void frame() {
+        frames.increment();
+    }
+
+    void revealed() {
+        revealedCells.increment();
+    }
+
+    @Override
+    public Map<String, Long> getSignalCounts() {
+        var map = new LinkedHashMap<String, Long>();
+        for (var s : Signal.values()) {
+            map.put(s.name(), counts[s.ordinal()].sum());
+        }
+        return map;
+    }
+
+    @Override
+    public long getStateChangeNanos() {
+        return stateChangeNanos.sum();
+    }
+
+    @Override
+    public long getFrames() {
+        return frames.sum();
+    }
+
+    @Override
+    public long getRevealedCells() {
+        return revealedCells.sum();
+    }
+
+}
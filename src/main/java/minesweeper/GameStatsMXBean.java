@@ -0,0 +1,10 @@
+package minesweeper;
+
+import java.util.Map;
+
+public interface GameStatsMXBean {
+    Map<String, Long> getSignalCounts();
+    long getStateChangeNanos();
+    long getFrames();
+    long getRevealedCells();
+}
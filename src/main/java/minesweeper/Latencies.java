@@ -0,0 +1,55 @@
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+class Latencies {
+
+    private final long[] nanos;
+
+    Latencies(long[] nanos) {
+        this.nanos = nanos.clone();
+        Arrays.sort(this.nanos);
+    }
+
+    long percentile(double p) {
+        return nanos[(int) Math.min(nanos.length - 1, Math.max(0, Math.ceil(p * nanos.length) - 1))];
+    }
+
+    long max() {
+        return nanos[nanos.length - 1];
+    }
+
+    String summary() {
+        if (nanos.length == 0) {
+            return "latency ms: none";
+        }
+        return "latency ms: p50=%.3f p90=%.3f p99=%.3f max=%.3f".formatted(
+                millis(percentile(0.50)),
+                millis(percentile(0.90)),
+                millis(percentile(0.99)),
+                millis(max()));
+    }
+
+    // power-of-two microsecond buckets, stable across runs so builds can be diffed
+    String histogram() {
+        var sb = new StringBuilder("latency histogram us:");
+        var i = 0;
+        for (long bound = 1; i < nanos.length; bound <<= 1) {
+            var count = 0;
+            while (i < nanos.length && TimeUnit.NANOSECONDS.toMicros(nanos[i]) < bound) {
+                count++;
+                i++;
+            }
+            if (count > 0) {
+                sb.append("%n  <%d: %d".formatted(bound, count));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
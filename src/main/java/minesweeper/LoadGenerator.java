@@ -0,0 +1,164 @@
+package minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a {@link Server} with many remote players at once. Every session connects before any of them
+ * clicks, so the server holds them all for the whole run. Each then left-clicks random covered tiles,
+ * starting a new game with a face press when one ends, and waits for its press to settle (or the new
+ * snapshot) before the next one. Two latencies are reported, wire and encoding included: click-to-update,
+ * up to the frame that reveals the pressed tile, and click-to-settle, up to the end of its cascade.
+ */
+public class LoadGenerator {
+
+    private final String host;
+    private final int port;
+    private final int sessions;
+    private final int clicks;
+    private final long seed;
+
+    private final long[] latencies;
+    private final long[] settleLatencies;
+    private final AtomicInteger acknowledged = new AtomicInteger();
+    private final AtomicInteger settled = new AtomicInteger();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final CountDownLatch ready;
+    private final CountDownLatch go = new CountDownLatch(1);
+
+    LoadGenerator(String host, int port, int sessions, int clicks, long seed) {
+        this.host = host;
+        this.port = port;
+        this.sessions = sessions;
+        this.clicks = clicks;
+        this.seed = seed;
+        latencies = new long[sessions * clicks];
+        settleLatencies = new long[sessions * clicks];
+        ready = new CountDownLatch(sessions);
+    }
+
+    public static void main(String[] args) {
+        var address = args.length > 0 ? args[0] : "localhost";
+        var colon = address.lastIndexOf(':');
+        var host = colon < 0 ? address : address.substring(0, colon);
+        var port = colon < 0 ? Server.DEFAULT_PORT : Integer.parseInt(address.substring(colon + 1));
+        var sessions = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        var clicks = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        var seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        new LoadGenerator(host, port, sessions, clicks, seed).run();
+    }
+
+    void run() {
+        var connectNanos = System.nanoTime();
+        long startNanos;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                var id = i;
+                executor.execute(() -> session(id));
+            }
+            await(ready);
+            startNanos = System.nanoTime();
+            connectNanos = startNanos - connectNanos;
+            go.countDown();
+        }
+        var elapsedNanos = System.nanoTime() - startNanos;
+
+        var count = acknowledged.get();
+        var stats = new Latencies(Arrays.copyOf(latencies, count));
+        var settleStats = new Latencies(Arrays.copyOf(settleLatencies, settled.get()));
+        System.out.printf("server=%s:%d sessions=%d connected=%d failed=%d clicks/session=%d%n",
+                host, port, sessions, connected.get(), failed.get(), clicks);
+        System.out.printf("connect=%.3fs elapsed=%.3fs acknowledged=%d throughput=%.0f clicks/s%n",
+                connectNanos / 1e9, elapsedNanos / 1e9, count, count / (elapsedNanos / 1e9));
+        System.out.println("update: " + stats.summary());
+        System.out.println(stats.histogram());
+        System.out.println("settle: " + settleStats.summary());
+        System.out.println(settleStats.histogram());
+    }
+
+    private void session(int id) {
+        var counted = false;
+        try (var socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port));
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            var mode = Protocol.readHello(in);
+            var board = ((GameState.Snapshot) Protocol.readFrame(in, mode)).board();
+            connected.incrementAndGet();
+            ready.countDown();
+            counted = true;
+            await(go);
+            play(mode, board, in, out, new Random(seed + id));
+        } catch (IOException e) {
+            failed.incrementAndGet();
+        } finally {
+            if (!counted) {
+                ready.countDown();
+            }
+        }
+    }
+
+    private void play(Mode mode, Board board, DataInputStream in, DataOutputStream out, Random random) throws IOException {
+        var state = PlayState.INIT;
+        for (int i = 0; i < clicks; i++) {
+            var over = state == PlayState.WON || state == PlayState.LOST;
+            var target = over ? -1 : coveredTile(mode, board, random);
+            var pressNanos = System.nanoTime();
+            Protocol.writePress(out, over
+                    ? new GameSignal.FacePress()
+                    : new GameSignal.TilePress(mode.row(target), mode.col(target), ClickSide.LEFT));
+            out.flush();
+            var updated = false;
+            var done = false;
+            while (!done) {
+                var gs = Protocol.readFrame(in, mode);
+                switch (gs) {
+                    case GameState.Snapshot s -> {
+                        board = s.board();
+                        done = target < 0;
+                    }
+                    case GameState.Delta d -> board.apply(d);
+                    case GameState.Status st -> {}
+                    case GameState.Settled st -> {
+                        settleLatencies[settled.getAndIncrement()] = System.nanoTime() - pressNanos;
+                        done = true;
+                    }
+                }
+                if (!updated && (target < 0 ? done : board.revealed(target))) {
+                    latencies[acknowledged.getAndIncrement()] = System.nanoTime() - pressNanos;
+                    updated = true;
+                }
+                state = gs.state();
+            }
+        }
+    }
+
+    private static int coveredTile(Mode mode, Board board, Random random) {
+        int index;
+        do {
+            index = random.nextInt(mode.cells());
+        } while (board.revealed(index) || board.flagged(index));
+        return index;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
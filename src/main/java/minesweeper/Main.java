@@ -1,34 +1,41 @@
 package minesweeper;
 
-import java.util.stream.Stream;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
 
     public static void main(String[] args) {
-        var mode = modeFromArgs(args);
-        var cellStates = new CellState[mode.rows][mode.columns];
-        mode.rowCols()
-                .map(rc -> new CellState(rc.row(), rc.col(), false, false, false, 0))
-                .forEach(cs -> cellStates[cs.row()][cs.col()] = cs);
-        var windowChannel = new Channel<GameState>();
-        var gameChannel = new Channel<GameSignal>();
-        var timer = new Clock(gameChannel);
-        timer.start();
-        var initialState = new GameState(cellStates, PlayState.PLAYING, 0);
-        var window = new Window("images", mode, windowChannel, gameChannel, initialState);
-        window.start();
-        var game = new Game(mode, windowChannel, gameChannel);
-        game.start();
+        var sprites = CompletableFuture.supplyAsync(Sprites::load); // decoded while the game spawns its cells
+        var restore = System.getProperty("minesweeper.restore");
+        var saved = restore == null ? null : SavedGame.read(Path.of(restore));
+        var mode = saved == null ? modeFromArgs(args) : saved.board().mode();
+        var channels = Channels.fromSystemProperties();
+        Metrics.start();
+        var windowChannel = channels.<GameState>windowChannel();
+        var gameChannel = channels.<GameSignal>gameChannel();
+        var seed = Seed.fromSystemProperties();
+        var trace = System.getProperty("minesweeper.trace");
+        var inputChannel = trace == null
+                ? gameChannel
+                : new TraceRecorder(gameChannel, Path.of(trace), mode, seed);
+        var initialState = new GameState.Snapshot(0, new Board(mode), PlayState.PLAYING, 0, 0);
+        var savePath = Path.of(System.getProperty("minesweeper.save", "minesweeper.save"));
+        var engines = Engines.fromSystemProperties();
+        var carriers = Carriers.fromSystemProperties();
+        var game = CompletableFuture.supplyAsync(
+                () -> new Game(mode, channels, engines, carriers, seed.generator(), windowChannel, gameChannel));
+        var window = new Window(sprites.join(), mode, windowChannel, inputChannel, initialState, savePath);
+        window.start(new ProcessScope("window"));
+        game.join().start();
+        if (saved != null) {
+            game.join().restore(saved);
+        }
     }
 
     static Mode modeFromArgs(String[] args) {
         if (args.length > 0) {
-            var mode = Stream.of(Mode.values())
-                    .filter(m -> m.name().equalsIgnoreCase(args[0]))
-                    .findFirst();
-            if (mode.isPresent()) {
-                return mode.get();
-            }
+            return Mode.parse(args[0]).orElse(Mode.INTERMEDIATE);
         }
         return Mode.INTERMEDIATE;
     }
@@ -0,0 +1,50 @@
+package minesweeper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MeteredChannel<T> implements Channel<T> {
+
+    private final Channel<T> delegate;
+    private final ChannelStats stats;
+    private final int index;
+    private final AtomicInteger depth = new AtomicInteger(); // includes producers blocked in put
+
+    MeteredChannel(Channel<T> delegate, ChannelStats stats, int index) {
+        this.delegate = delegate;
+        this.stats = stats;
+        this.index = index;
+    }
+
+    @Override
+    public void put(T val) {
+        stats.onPutStart(depth.incrementAndGet(), index);
+        var start = System.nanoTime();
+        delegate.put(val);
+        stats.onPutEnd(System.nanoTime() - start);
+    }
+
+    @Override
+    public T poll() {
+        var val = delegate.poll();
+        if (val != null) {
+            depth.decrementAndGet();
+            stats.onTake(0);
+        }
+        return val;
+    }
+
+    @Override
+    public T take() {
+        var val = delegate.poll();
+        var blockedNanos = 0L;
+        if (val == null) {
+            var start = System.nanoTime();
+            val = delegate.take();
+            blockedNanos = System.nanoTime() - start;
+        }
+        depth.decrementAndGet();
+        stats.onTake(blockedNanos);
+        return val;
+    }
+
+}
@@ -0,0 +1,100 @@
+package minesweeper;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide counters for the channel network, cells, games and carrier pools. Enabled with
+ * {@code -Dminesweeper.metrics=true}, exposed as MXBeans under the {@code minesweeper} domain
+ * and dumped to stderr every {@code minesweeper.metrics.dumpSeconds} (10 by default, 0 disables).
+ */
+final class Metrics {
+
+    static final boolean ENABLED = Boolean.getBoolean("minesweeper.metrics");
+
+    static final ChannelStats CELL_CHANNELS = new ChannelStats("cells");
+    static final ChannelStats GAME_CHANNELS = new ChannelStats("game");
+    static final ChannelStats WINDOW_CHANNELS = new ChannelStats("window");
+    static final CellStats CELLS = new CellStats();
+    static final GameStats GAMES = new GameStats();
+    static final CarrierStats CARRIERS = new CarrierStats();
+
+    private static final long DUMP_SECONDS = Long.getLong("minesweeper.metrics.dumpSeconds", 10);
+    private static final AtomicBoolean started = new AtomicBoolean();
+
+    private Metrics() {
+    }
+
+    static void start() {
+        if (!ENABLED || !started.compareAndSet(false, true)) {
+            return;
+        }
+        var server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (var stats : List.of(CELL_CHANNELS, GAME_CHANNELS, WINDOW_CHANNELS)) {
+                server.registerMBean(stats, new ObjectName("minesweeper:type=Channels,role=" + stats.role()));
+            }
+            server.registerMBean(CELLS, new ObjectName("minesweeper:type=Cells"));
+            server.registerMBean(GAMES, new ObjectName("minesweeper:type=Games"));
+            server.registerMBean(CARRIERS, new ObjectName("minesweeper:type=Carriers"));
+        } catch (JMException e) {
+            throw new RuntimeException(e);
+        }
+        if (DUMP_SECONDS > 0) {
+            Thread.ofVirtual().start(Metrics::dumpPeriodically);
+        }
+    }
+
+    static <T> Channel<T> meter(Channel<T> channel, ChannelStats stats, int index) {
+        return ENABLED ? new MeteredChannel<>(channel, stats, index) : channel;
+    }
+
+    private static void dumpPeriodically() {
+        var period = Duration.ofSeconds(DUMP_SECONDS);
+        var lastFrames = 0L;
+        while (true) {
+            try {
+                Thread.sleep(period);
+            } catch (InterruptedException e) {
+                return;
+            }
+            var frames = GAMES.getFrames();
+            System.err.print(dump());
+            System.err.printf("frames/s=%.1f%n", (frames - lastFrames) / (double) DUMP_SECONDS);
+            lastFrames = frames;
+        }
+    }
+
+    static String dump() {
+        var sb = new StringBuilder();
+        for (var stats : List.of(CELL_CHANNELS, GAME_CHANNELS, WINDOW_CHANNELS)) {
+            sb.append("channels %s: puts=%d takes=%d depth=%d hwm=%d (%s) putMs=%d blockedTakeMs=%d%n".formatted(
+                    stats.role(),
+                    stats.getPuts(),
+                    stats.getTakes(),
+                    stats.getDepth(),
+                    stats.getHighWaterMark(),
+                    stats.getHighWaterChannel(),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getPutNanos()),
+                    TimeUnit.NANOSECONDS.toMillis(stats.getBlockedTakeNanos())));
+        }
+        sb.append("cells: ").append(CELLS.getSignalCounts()).append('\n');
+        var revealed = Math.max(1, GAMES.getRevealedCells());
+        sb.append("per revealed cell: neighborSignals=%.2f stateChanges=%.2f%n".formatted(
+                CELLS.neighborSignals() / (double) revealed,
+                GAMES.getSignalCounts().get(GameStats.Signal.STATE_CHANGE.name()) / (double) revealed));
+        sb.append("processes: live=%d%n".formatted(ProcessScope.live()));
+        sb.append(CARRIERS.dump());
+        sb.append("games: %s stateChangeMs=%d frames=%d%n".formatted(
+                GAMES.getSignalCounts(),
+                TimeUnit.NANOSECONDS.toMillis(GAMES.getStateChangeNanos()),
+                GAMES.getFrames()));
+        return sb.toString();
+    }
+
+}
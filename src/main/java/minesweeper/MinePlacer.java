@@ -0,0 +1,62 @@
+package minesweeper;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks the mines for a board by a partial Fisher-Yates shuffle of cell indices: O(mines) whatever the
+ * density. The first click is never a mine, and its neighbors aren't either when enough cells remain.
+ */
+final class MinePlacer {
+
+    private final Mode mode;
+    private RandomGenerator random;
+    private int[] candidates; // a permutation of cell indices, shuffled in part on each call
+
+    MinePlacer(Mode mode, RandomGenerator random) {
+        this.mode = mode;
+        this.random = random;
+    }
+
+    /**
+     * Starts over on another generator, placing as a new placer would, but keeping the array.
+     */
+    void reset(RandomGenerator random) {
+        this.random = random;
+        if (candidates != null) {
+            for (int i = 0; i < candidates.length; i++) {
+                candidates[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Mine cells in the first {@code mode.mines} entries. The array is reused by the next call.
+     */
+    int[] place(int first) {
+        if (candidates == null) {
+            candidates = new int[mode.cells()];
+            for (int i = 0; i < candidates.length; i++) {
+                candidates[i] = i;
+            }
+        }
+        var clearNeighbors = mode.nonMines() > mode.neighborOffsets(first).length;
+        var size = candidates.length;
+        for (int i = 0; i < mode.mines; ) {
+            var j = i + random.nextInt(size - i);
+            var cell = candidates[j];
+            candidates[j] = candidates[i];
+            if (cell == first || (clearNeighbors && adjacent(first, cell))) {
+                candidates[i] = candidates[--size]; // drop it from the pool
+                candidates[size] = cell;
+            } else {
+                candidates[i++] = cell;
+            }
+        }
+        return candidates;
+    }
+
+    private boolean adjacent(int a, int b) {
+        return Math.abs(mode.row(a) - mode.row(b)) <= 1 && Math.abs(mode.col(a) - mode.col(b)) <= 1;
+    }
+
+}
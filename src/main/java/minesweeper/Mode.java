@@ -1,41 +1,166 @@
 package minesweeper;
 
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
-enum Mode {
-    BEGINNER(9, 9, 10),
-    INTERMEDIATE(16, 16, 40),
-    ADVANCED(16, 30, 99);
+final class Mode {
+    static final Mode BEGINNER = new Mode("BEGINNER", 9, 9, 10);
+    static final Mode INTERMEDIATE = new Mode("INTERMEDIATE", 16, 16, 40);
+    static final Mode ADVANCED = new Mode("ADVANCED", 16, 30, 99);
 
+    private static final List<Mode> VALUES = List.of(BEGINNER, INTERMEDIATE, ADVANCED);
+    private static final Pattern CUSTOM = Pattern.compile("(\\d+)x(\\d+)x(\\d+)");
+    private static final int MAX_CELLS = Integer.MAX_VALUE - 8; // largest array the JVM will allocate
+
+    private static final int TOP = 1;
+    private static final int BOTTOM = 1 << 1;
+    private static final int LEFT = 1 << 2;
+    private static final int RIGHT = 1 << 3;
+
+    private final String name;
     final int rows;
     final int columns;
     final int mines;
 
-    Mode(int rows, int columns, int mines) {
+    // index offsets of the neighbors of a cell, and their directions, shared by all cells on the same edges
+    private final int[][] neighborOffsets;
+    private final int[][] neighborDirections;
+
+    private Mode(String name, int rows, int columns, int mines) {
+        this.name = name;
         this.rows = rows;
         this.columns = columns;
         this.mines = mines;
+        neighborOffsets = new int[RIGHT << 1][];
+        neighborDirections = new int[RIGHT << 1][];
+        for (int edges = 0; edges < neighborOffsets.length; edges++) {
+            neighborOffsets[edges] = offsets(edges, false);
+            neighborDirections[edges] = offsets(edges, true);
+        }
+    }
+
+    private int[] offsets(int edges, boolean directions) {
+        var offsets = new int[8];
+        var count = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                if ((dr == 0 && dc == 0) // discard center
+                        || (dr < 0 && (edges & TOP) != 0) || (dr > 0 && (edges & BOTTOM) != 0) // discard invalid rows
+                        || (dc < 0 && (edges & LEFT) != 0) || (dc > 0 && (edges & RIGHT) != 0)) { // discard invalid cols
+                    continue;
+                }
+                offsets[count++] = directions ? direction(dr, dc) : dr * columns + dc;
+            }
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    static List<Mode> values() {
+        return VALUES;
+    }
+
+    static Mode custom(int rows, int columns, int mines) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("board must have at least one row and column: %dx%d".formatted(rows, columns));
+        }
+        if ((long) rows * columns > MAX_CELLS) {
+            throw new IllegalArgumentException("board too large: %dx%d".formatted(rows, columns));
+        }
+        if (mines < 0 || mines >= rows * columns) {
+            throw new IllegalArgumentException("mines must leave at least one safe cell: %d".formatted(mines));
+        }
+        return new Mode("CUSTOM", rows, columns, mines);
+    }
+
+    static Optional<Mode> parse(String arg) {
+        var standard = VALUES.stream().filter(m -> m.name.equalsIgnoreCase(arg)).findFirst();
+        if (standard.isPresent()) {
+            return standard;
+        }
+        var matcher = CUSTOM.matcher(arg.toLowerCase());
+        if (matcher.matches()) {
+            return Optional.of(custom(
+                    Integer.parseInt(matcher.group(1)),
+                    Integer.parseInt(matcher.group(2)),
+                    Integer.parseInt(matcher.group(3))));
+        }
+        return Optional.empty();
+    }
+
+    // a standard mode by name, otherwise a custom one of the given size
+    static Mode of(String name, int rows, int columns, int mines) {
+        return VALUES.stream()
+                .filter(m -> m.name.equals(name))
+                .findFirst()
+                .orElseGet(() -> custom(rows, columns, mines));
+    }
+
+    String name() {
+        return name;
+    }
+
+    int cells() {
+        return rows * columns;
     }
 
     int nonMines() {
-        return rows * columns - mines;
+        return cells() - mines;
+    }
+
+    int index(int row, int col) {
+        return row * columns + col;
+    }
+
+    int row(int index) {
+        return index / columns;
+    }
+
+    int col(int index) {
+        return index % columns;
+    }
+
+    /**
+     * Offsets to add to {@code index} to get its neighbors. The array is shared and must not be modified.
+     */
+    int[] neighborOffsets(int index) {
+        return neighborOffsets(row(index), col(index));
+    }
+
+    int[] neighborOffsets(int row, int col) {
+        return neighborOffsets[edges(row, col)];
+    }
+
+    /**
+     * Directions of the neighbors of {@code index}, in the order of {@link #neighborOffsets}. The array is shared
+     * and must not be modified.
+     */
+    int[] neighborDirections(int index) {
+        return neighborDirections[edges(row(index), col(index))];
+    }
+
+    private int edges(int row, int col) {
+        return (row == 0 ? TOP : 0)
+                | (row == rows - 1 ? BOTTOM : 0)
+                | (col == 0 ? LEFT : 0)
+                | (col == columns - 1 ? RIGHT : 0);
     }
 
-    record RowCol(int row, int col) {}
+    // a neighbor's direction as a number from 0 to 8, with 4 for the cell itself
+    static int direction(int dr, int dc) {
+        return (dr + 1) * 3 + dc + 1;
+    }
 
-    Stream<RowCol> rowCols() {
-        return IntStream.range(0, rows)
-                .boxed()
-                .flatMap(r -> IntStream.range(0, columns).mapToObj(c -> new RowCol(r, c)));
+    // the direction back from a neighbor
+    static int opposite(int direction) {
+        return 8 - direction;
     }
 
-    Stream<RowCol> neighborRowCols(int row, int col) {
-        return IntStream.rangeClosed(row - 1, row + 1)
-                .boxed()
-                .flatMap(r -> IntStream.rangeClosed(col - 1, col + 1).mapToObj(c -> new RowCol(r, c)))
-                .filter(rc -> rc.row() >= 0 && rc.row() < rows) // discard invalid rows
-                .filter(rc -> rc.col() >= 0 && rc.col() < columns) // discard invalid cols
-                .filter(rc -> rc.row() != row || rc.col() != col); // discard center
+    @Override
+    public String toString() {
+        return this == BEGINNER || this == INTERMEDIATE || this == ADVANCED
+                ? name
+                : "%s(%dx%dx%d)".formatted(name, rows, columns, mines);
     }
 }
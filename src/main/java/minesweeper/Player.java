@@ -0,0 +1,77 @@
+package minesweeper;
+
+import java.util.Random;
+
+class Player {
+
+    interface Strategy {
+        /**
+         * Tiles to left-click next, given the board as the window shows it.
+         */
+        int[] next(Board board);
+    }
+
+    private final Mode mode;
+    private final Channel<GameState> windowChannel;
+    private final Channel<GameSignal> gameChannel;
+    private final Strategy strategy;
+    private final ProcessScope scope;
+
+    Player(
+            Mode mode,
+            Channel<GameState> windowChannel,
+            Channel<GameSignal> gameChannel,
+            Strategy strategy,
+            ProcessScope scope) {
+        this.mode = mode;
+        this.windowChannel = windowChannel;
+        this.gameChannel = gameChannel;
+        this.strategy = strategy;
+        this.scope = scope;
+    }
+
+    static Strategy random(Mode mode, Random random) {
+        return board -> {
+            int row, col;
+            do {
+                row = random.nextInt(mode.rows);
+                col = random.nextInt(mode.columns);
+            } while (board.revealed(row, col));
+            return new int[]{mode.index(row, col)};
+        };
+    }
+
+    GameState play() {
+        var board = new Board(mode);
+        var pressed = strategy.next(board);
+        var unsettled = pressed.length;
+        press(pressed);
+        while (true) {
+            var gs = windowChannel.take();
+            switch (gs) {
+                case GameState.Snapshot s -> board = s.board();
+                case GameState.Delta d -> board.apply(d);
+                case GameState.Status st -> {}
+                case GameState.Settled st -> unsettled -= st.presses();
+            }
+            if (gs.state() == PlayState.WON || gs.state() == PlayState.LOST) {
+                return gs;
+            }
+            if (unsettled == 0) { // wait for the last presses to run their course before choosing the next tiles
+                pressed = strategy.next(board);
+                unsettled = pressed.length;
+                press(pressed);
+            }
+        }
+    }
+
+    // sent from its own process so a full game channel can't stop the player draining frames the game is blocked on
+    private void press(int[] tiles) {
+        scope.fork(() -> {
+            for (var tile : tiles) {
+                gameChannel.put(new GameSignal.TilePress(mode.row(tile), mode.col(tile), ClickSide.LEFT));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,156 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Owns a group of processes, in the manner of a structured task scope. Processes are forked into it, and
+ * closing it interrupts those still running and waits for them to end. A process that ends by being
+ * interrupted on a channel has been shut down; one that fails shuts the whole scope down. Forks after
+ * shutdown, or after the carrier pool has closed, don't run. Processes run on the scope's carrier pool,
+ * the JVM's default scheduler unless given another. Live processes are counted across all scopes, so a
+ * soak test can check that none outlive their game.
+ */
+final class ProcessScope implements AutoCloseable {
+
+    private static final LongAdder LIVE = new LongAdder();
+
+    private final ThreadFactory threads;
+    private final ReentrantLock lock = new ReentrantLock();
+    // a slot per running process; slots of ended processes are reused, so short-lived forks don't pile up
+    private Thread[] running = new Thread[16];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+    private volatile boolean shutdown;
+
+    ProcessScope(String name) {
+        this(name, CarrierPool.DEFAULT);
+    }
+
+    ProcessScope(String name, CarrierPool carriers) {
+        threads = carriers.threads(name);
+    }
+
+    static long live() {
+        return LIVE.sum();
+    }
+
+    void fork(Runnable process) {
+        if (shutdown) {
+            return;
+        }
+        var slot = reserveSlot();
+        var thread = threads.newThread(() -> {
+            try {
+                if (!shutdown) {
+                    process.run();
+                }
+            } catch (ChannelInterruptedException e) {
+                // shut down while waiting on a channel
+            } catch (RuntimeException | Error e) {
+                shutdown();
+                throw e;
+            } finally {
+                releaseSlot(slot);
+                LIVE.decrement();
+            }
+        });
+        lock.lock();
+        try {
+            running[slot] = thread;
+        } finally {
+            lock.unlock();
+        }
+        LIVE.increment();
+        try {
+            thread.start();
+        } catch (RejectedExecutionException e) { // carriers closed while forking, so shut down too
+            releaseSlot(slot);
+            LIVE.decrement();
+            return;
+        }
+        if (shutdown) { // raced with shutdown, which may have missed it
+            thread.interrupt();
+        }
+    }
+
+    void shutdown() {
+        shutdown = true;
+        for (var thread : snapshot()) {
+            thread.interrupt();
+        }
+    }
+
+    // waits for every process to end, without asking them to
+    void join() throws InterruptedException {
+        for (var alive = snapshot(); !alive.isEmpty(); alive = snapshot()) {
+            for (var thread : alive) {
+                thread.join();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown();
+        var interrupted = false;
+        while (true) {
+            try {
+                join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int reserveSlot() {
+        lock.lock();
+        try {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (slotCount == running.length) {
+                running = Arrays.copyOf(running, slotCount * 2);
+                freeSlots = Arrays.copyOf(freeSlots, slotCount * 2);
+            }
+            return slotCount++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseSlot(int slot) {
+        lock.lock();
+        try {
+            running[slot] = null;
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ArrayList<Thread> snapshot() {
+        lock.lock();
+        try {
+            var alive = new ArrayList<Thread>(slotCount - freeCount);
+            for (int i = 0; i < slotCount; i++) {
+                if (running[i] != null) {
+                    alive.add(running[i]);
+                }
+            }
+            return alive;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package minesweeper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Wire format between a {@link Server} session and a remote player. The server greets with the mode,
+ * then streams frames; the client sends presses. Cells go out as packed {@link Board} bytes with covered
+ * cells reduced to their flag, so a client never learns where the mines are. Delta cells are sent in
+ * index order as gaps from the previous cell, which keeps a cascade to about two bytes a cell.
+ * <pre>
+ * hello:  magic:int version:byte mode:UTF rows:varint columns:varint mines:varint
+ * frame:  kind:byte seq:varlong state:byte time:varlong flags:varint body
+ *         snapshot body: cell:byte * rows * columns
+ *         delta body:    count:varint (index-gap:varint cell:byte) * count
+ *         status body:   none
+ *         settled body:  presses:varint revealed:varint nanos:varlong
+ * press:  kind:byte [row:varint col:varint]
+ * </pre>
+ */
+final class Protocol {
+
+    private static final int MAGIC = 0x4D535750; // "MSWP"
+    private static final byte VERSION = 2;
+
+    private static final byte SNAPSHOT = 0;
+    private static final byte DELTA = 1;
+    private static final byte STATUS = 2;
+    private static final byte SETTLED = 3;
+
+    private static final byte LEFT = 0;
+    private static final byte RIGHT = 1;
+    private static final byte FACE = 2;
+    private static final byte SNAPSHOT_REQUEST = 3;
+
+    private static final PlayState[] PLAY_STATES = PlayState.values();
+
+    private Protocol() {
+    }
+
+    static void writeHello(DataOutput out, Mode mode) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(mode.name());
+        Varint.write(out, mode.rows);
+        Varint.write(out, mode.columns);
+        Varint.write(out, mode.mines);
+    }
+
+    static Mode readHello(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a minesweeper server");
+        }
+        var version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported protocol version: " + version);
+        }
+        var name = in.readUTF();
+        var rows = (int) Varint.read(in);
+        var columns = (int) Varint.read(in);
+        var mines = (int) Varint.read(in);
+        return Mode.of(name, rows, columns, mines);
+    }
+
+    static void writeFrame(DataOutput out, GameState gs) throws IOException {
+        out.writeByte(switch (gs) {
+            case GameState.Snapshot s -> SNAPSHOT;
+            case GameState.Delta d -> DELTA;
+            case GameState.Status st -> STATUS;
+            case GameState.Settled st -> SETTLED;
+        });
+        Varint.write(out, gs.seq());
+        out.writeByte(gs.state().ordinal());
+        Varint.write(out, gs.time());
+        Varint.write(out, gs.flags());
+        switch (gs) {
+            case GameState.Snapshot s -> writeCells(out, s.board());
+            case GameState.Delta d -> writeCells(out, d.cells(), d.values());
+            case GameState.Status st -> {}
+            case GameState.Settled st -> {
+                Varint.write(out, st.presses());
+                Varint.write(out, st.revealed());
+                Varint.write(out, st.nanos());
+            }
+        }
+    }
+
+    static GameState readFrame(DataInput in, Mode mode) throws IOException {
+        var kind = in.readByte();
+        var seq = Varint.read(in);
+        var state = PLAY_STATES[in.readByte()];
+        var time = Varint.read(in);
+        var flags = (int) Varint.read(in);
+        return switch (kind) {
+            case SNAPSHOT -> new GameState.Snapshot(seq, Board.read(mode, in), state, time, flags);
+            case DELTA -> {
+                var count = (int) Varint.read(in);
+                var cells = new int[count];
+                var values = new byte[count];
+                var index = -1;
+                for (int i = 0; i < count; i++) {
+                    index += (int) Varint.read(in) + 1;
+                    cells[i] = index;
+                    values[i] = in.readByte();
+                }
+                yield new GameState.Delta(seq, cells, values, state, time, flags);
+            }
+            case STATUS -> new GameState.Status(seq, state, time, flags);
+            case SETTLED -> new GameState.Settled(seq, state, time, flags,
+                    (int) Varint.read(in), (int) Varint.read(in), Varint.read(in));
+            default -> throw new IOException("unknown frame: " + kind);
+        };
+    }
+
+    static void writePress(DataOutput out, GameSignal signal) throws IOException {
+        switch (signal) {
+            case GameSignal.TilePress tp -> {
+                out.writeByte(tp.clickSide() == ClickSide.LEFT ? LEFT : RIGHT);
+                Varint.write(out, tp.row());
+                Varint.write(out, tp.col());
+            }
+            case GameSignal.FacePress fp -> out.writeByte(FACE);
+            case GameSignal.SnapshotRequest sr -> out.writeByte(SNAPSHOT_REQUEST);
+            default -> throw new IllegalArgumentException("not a client signal: " + signal);
+        }
+    }
+
+    // presses are checked against the mode here, so a client can't address a cell outside the board
+    static GameSignal readPress(DataInput in, Mode mode) throws IOException {
+        var kind = in.readByte();
+        return switch (kind) {
+            case LEFT, RIGHT -> {
+                var row = Varint.read(in);
+                var col = Varint.read(in);
+                if (row < 0 || row >= mode.rows || col < 0 || col >= mode.columns) {
+                    throw new IOException("tile outside the board: %d,%d".formatted(row, col));
+                }
+                yield new GameSignal.TilePress((int) row, (int) col, kind == LEFT ? ClickSide.LEFT : ClickSide.RIGHT);
+            }
+            case FACE -> new GameSignal.FacePress();
+            case SNAPSHOT_REQUEST -> new GameSignal.SnapshotRequest();
+            default -> throw new IOException("unknown press: " + kind);
+        };
+    }
+
+    private static void writeCells(DataOutput out, Board board) throws IOException {
+        var cells = new byte[board.mode().cells()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = Board.visible(board.get(i));
+        }
+        out.write(cells);
+    }
+
+    private static void writeCells(DataOutput out, int[] cells, byte[] values) throws IOException {
+        // cell index above its byte, so sorting orders by index
+        var sorted = new long[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            sorted[i] = (long) cells[i] << 8 | Board.visible(values[i]) & 0xFF;
+        }
+        Arrays.sort(sorted);
+        Varint.write(out, sorted.length);
+        var previous = -1L;
+        for (var cell : sorted) {
+            var index = cell >>> 8;
+            Varint.write(out, index - previous - 1);
+            out.writeByte((int) cell);
+            previous = index;
+        }
+    }
+
+}
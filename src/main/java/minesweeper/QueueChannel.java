@@ -0,0 +1,35 @@
+package minesweeper;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+class QueueChannel<T> implements Channel<T> {
+
+    private final BlockingQueue<T> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void put(T val) {
+        try {
+            queue.put(val);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelInterruptedException(e);
+        }
+    }
+
+    @Override
+    public T poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public T take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelInterruptedException(e);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package minesweeper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells a game when the cascades on its board have run out. Every click and neighbor signal is counted
+ * when sent and counted off once handled, after its own signals are counted and its state changes are
+ * reported, so the count only reaches zero when no cell has work left. The process that brings it to zero
+ * sends {@link GameSignal.Settled}, after the last state change, with the number of clicks it covers. The
+ * clicks are counted in the same word as the signals, so a late zero can't be mistaken for the settling
+ * of a click sent after it.
+ */
+final class Quiescence {
+
+    static final long CLICK_MASK = (1L << 24) - 1; // clicks are counted modulo 2^24
+
+    private static final int CLICK_SHIFT = 40;
+    private static final long IN_FLIGHT = (1L << CLICK_SHIFT) - 1;
+
+    private final AtomicLong state = new AtomicLong(); // clicks sent above, signals in flight below
+    private final Channel<GameSignal> gameChannel;
+
+    Quiescence(Channel<GameSignal> gameChannel) {
+        this.gameChannel = gameChannel;
+    }
+
+    // before the click is put
+    void click() {
+        state.addAndGet((1L << CLICK_SHIFT) + 1);
+    }
+
+    // before the signals are put
+    void sent(int count) {
+        state.addAndGet(count);
+    }
+
+    // after the signals are handled and reported
+    void handled(int count) {
+        var s = state.addAndGet(-count);
+        if ((s & IN_FLIGHT) == 0) {
+            gameChannel.put(new GameSignal.Settled(s >>> CLICK_SHIFT & CLICK_MASK));
+        }
+    }
+
+}
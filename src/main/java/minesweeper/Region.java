@@ -0,0 +1,71 @@
+package minesweeper;
+
+/**
+ * A process for a rectangular block of cells, following the same rules as {@link Cell}. Cell state is kept
+ * in a {@link CellBlock}, so only signals that cross the border go through channels. Each batch of signals
+ * reports a cell that changed once, with its latest state.
+ */
+class Region {
+
+    private static final int MAX_BATCH = 256;
+
+    // a signal for the cell at a board index, or for the whole region with index -1
+    record Signal(int index, CellSignal signal) {}
+
+    private final Channel<Signal> inChannel;
+    private final Channel<GameSignal> stateChannel;
+    private final Quiescence quiescence;
+    private final CellBlock block;
+
+    Region(
+            Mode mode,
+            int top,
+            int left,
+            int rows,
+            int cols,
+            Channel<Signal> inChannel,
+            RegionEngine engine,
+            Channel<GameSignal> stateChannel,
+            Quiescence quiescence) {
+        this.inChannel = inChannel;
+        this.stateChannel = stateChannel;
+        this.quiescence = quiescence;
+        block = new CellBlock(mode, top, left, rows, cols, engine::sendNeighbor);
+    }
+
+    void start(ProcessScope scope) {
+        scope.fork(this::run);
+    }
+
+    private void run() {
+        while (true) {
+            var signal = inChannel.take();
+            var counted = 0; // clicks and neighbor signals, which quiescence counts
+            for (int batch = 1; signal != null; batch++) {
+                onSignal(signal);
+                if (signal.signal() instanceof CellSignal.Command || signal.signal() instanceof CellSignal.Neighbor) {
+                    counted++;
+                }
+                signal = batch < MAX_BATCH ? inChannel.poll() : null;
+            }
+            block.report(stateChannel::put);
+            if (counted > 0) {
+                quiescence.handled(counted);
+            }
+        }
+    }
+
+    private void onSignal(Signal signal) {
+        var s = signal.signal();
+        if (Metrics.ENABLED) {
+            Metrics.CELLS.count(s, s instanceof CellSignal.Neighbor n && n.generation() != block.generation().id());
+        }
+        switch (s) {
+            case CellSignal.Command command -> block.command(signal.index(), command);
+            case CellSignal.Neighbor neighbor -> block.neighbor(signal.index(), neighbor);
+            case CellSignal.Reset reset -> block.reset(reset.generation());
+            case CellSignal.Layout layout -> block.layout(signal.index(), layout);
+            case CellSignal.Restore restore -> block.restore(signal.index(), restore);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package minesweeper;
+
+/**
+ * One {@link Region} process and inbox per block of cells. Regions at the right and bottom edges are
+ * cut to fit the board.
+ */
+class RegionEngine implements Engine {
+
+    private final Mode mode;
+    private final int regionRows;
+    private final int regionColumns;
+    private final int across;
+    private final Channel<Region.Signal>[] regionChannels;
+    private final Quiescence quiescence;
+
+    @SuppressWarnings("unchecked")
+    RegionEngine(
+            Mode mode,
+            Channels channels,
+            int regionRows,
+            int regionColumns,
+            Channel<GameSignal> gameChannel,
+            ProcessScope scope) {
+        this.mode = mode;
+        quiescence = new Quiescence(gameChannel);
+        this.regionRows = Math.min(regionRows, mode.rows);
+        this.regionColumns = Math.min(regionColumns, mode.columns);
+        across = Math.ceilDiv(mode.columns, this.regionColumns);
+        var down = Math.ceilDiv(mode.rows, this.regionRows);
+        regionChannels = (Channel<Region.Signal>[]) new Channel<?>[across * down];
+        var regions = new Region[regionChannels.length];
+        for (int i = 0; i < regionChannels.length; i++) {
+            var top = i / across * this.regionRows;
+            var left = i % across * this.regionColumns;
+            var rows = Math.min(this.regionRows, mode.rows - top);
+            var cols = Math.min(this.regionColumns, mode.columns - left);
+            regionChannels[i] = channels.regionChannel(i, 2 * (rows + cols) + 4);
+            regions[i] = new Region(mode, top, left, rows, cols, regionChannels[i], this, gameChannel, quiescence);
+        }
+        for (var region : regions) {
+            region.start(scope);
+        }
+    }
+
+    @Override
+    public void reset(CellSignal.Generation generation) {
+        broadcast(new Region.Signal(-1, new CellSignal.Reset(generation)));
+    }
+
+    @Override
+    public void layout(int index, CellSignal.Layout layout) {
+        send(new Region.Signal(index, layout));
+    }
+
+    @Override
+    public void restore(int index, CellSignal.Restore restore) {
+        send(new Region.Signal(index, restore));
+    }
+
+    @Override
+    public void command(int index, CellSignal.Command command) {
+        quiescence.click();
+        send(new Region.Signal(index, command));
+    }
+
+    // a neighbor signal crossing from one region to another
+    void sendNeighbor(int index, CellSignal.Neighbor neighbor) {
+        quiescence.sent(1);
+        send(new Region.Signal(index, neighbor));
+    }
+
+    private void send(Region.Signal signal) {
+        var index = signal.index();
+        regionChannels[mode.row(index) / regionRows * across + mode.col(index) / regionColumns].put(signal);
+    }
+
+    private void broadcast(Region.Signal signal) {
+        for (var channel : regionChannels) {
+            channel.put(signal);
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package minesweeper;
+
+import java.util.concurrent.SynchronousQueue;
+
+class RendezvousChannel<T> implements Channel<T> {
+
+    private final SynchronousQueue<T> queue = new SynchronousQueue<>();
+
+    @Override
+    public void put(T val) {
+        try {
+            queue.put(val);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelInterruptedException(e);
+        }
+    }
+
+    @Override
+    public T poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public T take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChannelInterruptedException(e);
+        }
+    }
+
+}
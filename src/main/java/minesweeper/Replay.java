@@ -0,0 +1,112 @@
+package minesweeper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds a recorded {@link Trace} into a new game on the trace's mode and seed, so every run sees the
+ * same boards and presses. Each press waits for the game to report it settled (or a snapshot, after a
+ * face press) before the next one is sent, so the latency is from the press to the end of its cascade.
+ * With {@code realtime} presses also keep their recorded spacing; otherwise they are sent as fast as the
+ * game settles them.
+ */
+public class Replay {
+
+    private final Trace trace;
+    private final Channels channels;
+    private final Engines engines;
+    private final Carriers carriers;
+    private final boolean realTime;
+
+    Replay(Trace trace, Channels channels, Engines engines, Carriers carriers, boolean realTime) {
+        this.trace = trace;
+        this.channels = channels;
+        this.engines = engines;
+        this.carriers = carriers;
+        this.realTime = realTime;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: Replay <trace> [realtime]");
+            System.exit(1);
+        }
+        var trace = Trace.read(Path.of(args[0]));
+        var realTime = args.length > 1 && args[1].equalsIgnoreCase("realtime");
+        Metrics.start();
+        new Replay(trace, Channels.fromSystemProperties(), Engines.fromSystemProperties(), Carriers.fromSystemProperties(), realTime).run();
+    }
+
+    void run() {
+        var mode = trace.mode();
+        var windowChannel = channels.<GameState>windowChannel();
+        var gameChannel = channels.<GameSignal>gameChannel();
+        try (var game = new Game(mode, channels, engines, carriers, trace.seed().generator(), windowChannel, gameChannel);
+             var sender = new ProcessScope("replay")) {
+            game.start();
+            replay(windowChannel, gameChannel, sender);
+        }
+    }
+
+    private void replay(Channel<GameState> windowChannel, Channel<GameSignal> gameChannel, ProcessScope sender) {
+        var mode = trace.mode();
+        // presses leave from one process, in order, so the replay can keep draining frames while the game channel is full
+        var presses = new QueueChannel<GameSignal>();
+        sender.fork(() -> {
+            while (true) {
+                gameChannel.put(presses.take());
+            }
+        });
+
+        GameState gs = windowChannel.take(); // initial snapshot
+        var latencies = new long[trace.entries().size()];
+        var acknowledged = 0;
+        var startNanos = System.nanoTime();
+        for (var entry : trace.entries()) {
+            if (realTime) {
+                var wait = startNanos + TimeUnit.MICROSECONDS.toNanos(entry.micros()) - System.nanoTime();
+                if (wait > 0) {
+                    sleep(wait);
+                }
+            }
+            var signal = entry.signal();
+            var face = signal instanceof GameSignal.FacePress;
+            var pressNanos = System.nanoTime();
+            presses.put(signal);
+            var done = false;
+            while (!done) {
+                gs = windowChannel.take();
+                switch (gs) {
+                    case GameState.Snapshot s -> done = face;
+                    case GameState.Delta d -> {}
+                    case GameState.Status st -> {}
+                    case GameState.Settled st -> done = !face;
+                }
+            }
+            latencies[acknowledged++] = System.nanoTime() - pressNanos;
+        }
+        var elapsedNanos = System.nanoTime() - startNanos;
+
+        var stats = new Latencies(Arrays.copyOf(latencies, acknowledged));
+        System.out.printf("mode=%s seed=%d random=%s presses=%d acknowledged=%d realtime=%b%n",
+                mode, trace.seed().value(), trace.seed().algorithm(), trace.entries().size(), acknowledged, realTime);
+        System.out.printf("channels: %s%n", channels);
+        System.out.printf("elapsed=%.3fs last state=%s%n", elapsedNanos / 1e9, gs.state());
+        System.out.println(stats.summary());
+        System.out.println(stats.histogram());
+        if (Metrics.ENABLED) {
+            System.out.print(Metrics.dump());
+        }
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
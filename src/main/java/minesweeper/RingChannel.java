@@ -0,0 +1,119 @@
+package minesweeper;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Capacity is rounded up to a power of two of at
+ * least two slots. Slots carry sequence numbers so producers claim them with a single CAS and no lock.
+ * Blocked producers and the consumer park with LockSupport, which unmounts a virtual thread rather
+ * than pinning its carrier.
+ */
+class RingChannel<T> implements Channel<T> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer only
+
+    private volatile Thread consumer;
+    private final ConcurrentLinkedQueue<Thread> producers = new ConcurrentLinkedQueue<>();
+
+    RingChannel(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        var size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1); // filled and free sequences collide with one slot
+        buffer = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+    }
+
+    @Override
+    public void put(T val) {
+        var me = Thread.currentThread();
+        while (!offer(val)) {
+            producers.add(me);
+            if (offer(val)) {
+                if (!producers.remove(me)) { // consumer already spent a wake-up on us, pass it on
+                    wakeProducer(producers.peek());
+                }
+                return;
+            }
+            LockSupport.park(this);
+            producers.remove(me);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new ChannelInterruptedException(null);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        var index = (int) head & mask;
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        var val = (T) buffer[index];
+        buffer[index] = null;
+        sequences.set(index, head + buffer.length);
+        head++;
+        wakeProducer(producers.poll());
+        return val;
+    }
+
+    @Override
+    public T take() {
+        var val = poll();
+        if (val != null) {
+            return val;
+        }
+        consumer = Thread.currentThread();
+        try {
+            while ((val = poll()) == null) {
+                LockSupport.park(this);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new ChannelInterruptedException(null);
+                }
+            }
+            return val;
+        } finally {
+            consumer = null;
+        }
+    }
+
+    private boolean offer(T val) {
+        while (true) {
+            var pos = tail.get();
+            var index = (int) pos & mask;
+            var diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[index] = val;
+                    sequences.set(index, pos + 1);
+                    var waiting = consumer;
+                    if (waiting != null) {
+                        LockSupport.unpark(waiting);
+                    }
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false; // full
+            }
+        }
+    }
+
+    private static void wakeProducer(Thread producer) {
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A game saved to disk from a {@link GameState.Snapshot}, mines included, at one byte per cell. Handing
+ * it back to a game in a {@link GameSignal.Restore} resumes play from the same board, state and time.
+ * <pre>
+ * magic:int version:byte mode:UTF rows:int columns:int mines:int state:byte time:long flags:int
+ * cell:byte * rows * columns
+ * </pre>
+ */
+final class SavedGame {
+
+    private static final int MAGIC = 0x4D535347; // "MSSG"
+    private static final byte VERSION = 1;
+
+    private static final PlayState[] PLAY_STATES = PlayState.values();
+
+    private SavedGame() {
+    }
+
+    static void write(Path path, GameState.Snapshot snapshot) {
+        var mode = snapshot.board().mode();
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(mode.name());
+            out.writeInt(mode.rows);
+            out.writeInt(mode.columns);
+            out.writeInt(mode.mines);
+            out.writeByte(snapshot.state().ordinal());
+            out.writeLong(snapshot.time());
+            out.writeInt(snapshot.flags());
+            snapshot.board().write(out);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static GameState.Snapshot read(Path path) {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("not a saved game: " + path);
+            }
+            var version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported saved game version: " + version);
+            }
+            var mode = Mode.of(in.readUTF(), in.readInt(), in.readInt(), in.readInt());
+            var ordinal = in.readByte();
+            if (ordinal < 0 || ordinal >= PLAY_STATES.length) {
+                throw new IllegalArgumentException("unknown play state in saved game: " + ordinal);
+            }
+            var state = PLAY_STATES[ordinal];
+            var time = in.readLong();
+            var flags = in.readInt();
+            return new GameState.Snapshot(0, Board.read(mode, in), state, time, flags);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
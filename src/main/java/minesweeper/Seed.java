@@ -0,0 +1,32 @@
+package minesweeper;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Names the generator used to place mines, so a game can be rebuilt from a trace or a simulation seed.
+ * Any {@link RandomGeneratorFactory} algorithm can be used.
+ */
+record Seed(String algorithm, long value) {
+
+    static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    Seed {
+        RandomGeneratorFactory.of(algorithm); // fail fast on an unknown algorithm
+    }
+
+    static Seed fromSystemProperties() {
+        return new Seed(
+                System.getProperty("minesweeper.random", DEFAULT_ALGORITHM),
+                Long.getLong("minesweeper.seed", System.nanoTime()));
+    }
+
+    RandomGenerator generator() {
+        return RandomGeneratorFactory.of(algorithm).create(value);
+    }
+
+    Seed withValue(long value) {
+        return new Seed(algorithm, value);
+    }
+
+}
@@ -0,0 +1,46 @@
+package minesweeper;
+
+import java.util.function.Consumer;
+
+/**
+ * The whole board as one {@link CellBlock}, run in the game's own process: a click and its cascade are
+ * applied before the call returns, and the changed cells are handed straight to the game, followed by
+ * {@link GameSignal.Settled}. No processes or channels are involved, so a click costs no hops or context
+ * switches.
+ */
+class SequentialEngine implements Engine {
+
+    private final CellBlock block;
+    private final Consumer<GameSignal> game;
+    private long clicks;
+
+    SequentialEngine(Mode mode, Consumer<GameSignal> game) {
+        this.game = game;
+        block = new CellBlock(mode, 0, 0, mode.rows, mode.columns, (index, signal) -> {
+            throw new IllegalStateException("cell outside the board: " + index);
+        });
+    }
+
+    @Override
+    public void reset(CellSignal.Generation generation) {
+        block.reset(generation);
+    }
+
+    @Override
+    public void layout(int index, CellSignal.Layout layout) {
+        block.layout(index, layout);
+    }
+
+    @Override
+    public void restore(int index, CellSignal.Restore restore) {
+        block.restore(index, restore);
+    }
+
+    @Override
+    public void command(int index, CellSignal.Command command) {
+        block.command(index, command);
+        block.report(game::accept);
+        game.accept(new GameSignal.Settled(++clicks & Quiescence.CLICK_MASK)); // the cascade ran to the end in this call
+    }
+
+}
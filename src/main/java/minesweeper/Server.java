@@ -0,0 +1,117 @@
+package minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.random.RandomGenerator;
+
+/**
+ * Hosts games for remote players over TCP, in place of the {@link Window}. Each connection is a session
+ * with its own {@link Game}: one process reads presses off the socket into the game channel, another
+ * writes frames from the window channel in the {@link Protocol} encoding, flushing once no more are
+ * waiting. The window channel is bounded, so a client that stops reading stalls only its own game. A
+ * session ends when its client hangs up, taking its game with it; one that fails for any other reason is
+ * logged and ends the same way, leaving the others running.
+ */
+public class Server {
+
+    static final int DEFAULT_PORT = 7777;
+
+    private final Mode mode;
+    private final Channels channels;
+    private final Engines engines;
+    private final Carriers carriers;
+    private final Seed seed;
+    private final int port;
+
+    Server(Mode mode, Channels channels, Engines engines, Carriers carriers, Seed seed, int port) {
+        this.mode = mode;
+        this.channels = channels;
+        this.engines = engines;
+        this.carriers = carriers;
+        this.seed = seed;
+        this.port = port;
+    }
+
+    public static void main(String[] args) {
+        var mode = Main.modeFromArgs(args);
+        var port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        Metrics.start();
+        new Server(mode, Channels.fromSystemProperties(), Engines.fromSystemProperties(),
+                Carriers.fromSystemProperties(), Seed.fromSystemProperties(), port).run();
+    }
+
+    void run() {
+        try (var serverSocket = new ServerSocket();
+             var sessions = new ProcessScope("session")) {
+            serverSocket.bind(new InetSocketAddress(port), 1024);
+            System.out.printf("listening on port %d: mode=%s engine=%s carriers=%s%n", port, mode, engines, carriers);
+            System.out.printf("channels: %s%n", channels);
+            sessions.fork(() -> accept(serverSocket, sessions));
+            sessions.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void accept(ServerSocket serverSocket, ProcessScope sessions) {
+        for (long id = 0; ; id++) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            var generator = seed.withValue(seed.value() + id).generator();
+            var session = id;
+            sessions.fork(() -> serve(session, socket, generator));
+        }
+    }
+
+    private void serve(long session, Socket socket, RandomGenerator generator) {
+        var windowChannel = channels.<GameState>boundedWindowChannel();
+        var gameChannel = channels.<GameSignal>gameChannel();
+        try (socket;
+             var game = new Game(mode, channels, engines, carriers, generator, windowChannel, gameChannel);
+             var frames = new ProcessScope("frames")) {
+            socket.setTcpNoDelay(true);
+            var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            Protocol.writeHello(out, mode); // flushed with the initial snapshot
+            game.start();
+            frames.fork(() -> sendFrames(windowChannel, out));
+            while (true) {
+                gameChannel.put(Protocol.readPress(in, mode));
+            }
+        } catch (IOException e) {
+            // hung up, reset or sent garbage; the session is over either way
+        } catch (ChannelInterruptedException e) {
+            throw e; // the server is shutting down
+        } catch (RuntimeException e) {
+            System.err.printf("session %d failed: %s%n", session, e);
+        }
+    }
+
+    private static void sendFrames(Channel<GameState> windowChannel, DataOutputStream out) {
+        try {
+            while (true) {
+                Protocol.writeFrame(out, windowChannel.take());
+                for (var gs = windowChannel.poll(); gs != null; gs = windowChannel.poll()) {
+                    Protocol.writeFrame(out, gs);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client is gone; the reader sees it too and ends the session
+        }
+    }
+
+}
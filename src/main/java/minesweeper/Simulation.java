@@ -0,0 +1,108 @@
+package minesweeper;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Simulation {
+
+    private final Mode mode;
+    private final Channels channels;
+    private final Engines engines;
+    private final Carriers carriers;
+    private final int games;
+    private final int concurrency;
+    private final Seed seed;
+    private final boolean solve;
+
+    private final long[] latencies;
+    private final AtomicInteger won = new AtomicInteger();
+    private final AtomicInteger lost = new AtomicInteger();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder mergedSignals = new LongAdder();
+
+    Simulation(Mode mode, Channels channels, Engines engines, Carriers carriers, int games, int concurrency, Seed seed, boolean solve) {
+        this.mode = mode;
+        this.channels = channels;
+        this.engines = engines;
+        this.carriers = carriers;
+        this.games = games;
+        this.concurrency = concurrency;
+        this.seed = seed;
+        this.solve = solve;
+        latencies = new long[games];
+    }
+
+    public static void main(String[] args) {
+        var mode = Main.modeFromArgs(args);
+        var games = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        var concurrency = args.length > 2 ? Integer.parseInt(args[2]) : games;
+        var seed = Seed.fromSystemProperties();
+        if (args.length > 3) {
+            seed = seed.withValue(Long.parseLong(args[3]));
+        }
+        Metrics.start();
+        var solve = args.length > 4 && args[4].equalsIgnoreCase("solver");
+        new Simulation(mode, Channels.fromSystemProperties(), Engines.fromSystemProperties(), Carriers.fromSystemProperties(),
+                games, concurrency, seed, solve).run();
+    }
+
+    void run() {
+        var permits = new Semaphore(concurrency);
+        var startNanos = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < games; i++) {
+                var id = i;
+                permits.acquireUninterruptibly();
+                executor.execute(() -> {
+                    try {
+                        playGame(id);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        report(System.nanoTime() - startNanos);
+    }
+
+    private void playGame(int id) {
+        var startNanos = System.nanoTime();
+        var windowChannel = channels.<GameState>windowChannel();
+        var gameChannel = channels.<GameSignal>gameChannel();
+        var random = new Random(seed.value() + id);
+        var generator = seed.withValue(random.nextLong()).generator();
+        try (var game = new Game(mode, channels, engines, carriers, generator, windowChannel, gameChannel);
+             var presses = new ProcessScope("player")) {
+            game.start();
+            var strategy = solve ? new Solver(mode) : Player.random(mode, random);
+            var player = new Player(mode, windowChannel, gameChannel, strategy, presses);
+            var gs = player.play();
+            latencies[id] = System.nanoTime() - startNanos;
+            (gs.state() == PlayState.WON ? won : lost).incrementAndGet();
+            frames.add(game.frames());
+            mergedSignals.add(game.mergedSignals());
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        var seconds = elapsedNanos / 1e9;
+        System.out.printf(
+                "mode=%s games=%d concurrency=%d seed=%d random=%s player=%s%n",
+                mode, games, concurrency, seed.value(), seed.algorithm(), solve ? "solver" : "random");
+        System.out.printf("channels: %s engine: %s carriers: %s%n", channels, engines, carriers);
+        System.out.printf("elapsed=%.3fs games/s=%.1f won=%d lost=%d%n", seconds, games / seconds, won.get(), lost.get());
+        System.out.println(new Latencies(latencies).summary());
+        System.out.printf(
+                "frames=%d signals/frame=%.2f%n",
+                frames.sum(),
+                mergedSignals.sum() / (double) Math.max(1, frames.sum()));
+        System.out.printf("live processes=%d%n", ProcessScope.live()); // every game is closed, so 0 unless one leaked
+        if (Metrics.ENABLED) {
+            System.out.print(Metrics.dump());
+        }
+    }
+
+}
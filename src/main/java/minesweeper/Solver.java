@@ -0,0 +1,681 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays one game from what the window sees: revealed tiles and their counts, never the mine bits.
+ * Single-point deductions come first. When they run out, the frontier of covered tiles next to
+ * numbers is split into independent components, each enumerated exactly with one bit per tile, and
+ * the components are combined under the remaining mine count to find the safest tile to open.
+ * Large components are enumerated in parallel on the common ForkJoinPool.
+ */
+final class Solver implements Player.Strategy {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte SAFE = 1; // deduced, not yet revealed
+    private static final byte MINE = 2;
+    private static final byte OPEN = 3;
+
+    private static final int MAX_EXACT_VARS = Long.SIZE;
+    private static final long NODE_BUDGET = 1 << 16; // past this a component falls back to per-number estimates
+    private static final int PARALLEL_VARS = 24; // smaller components finish before a fork pays off
+
+    private final Mode mode;
+    private final byte[] known;
+    private int knownMines;
+
+    private int[] boundary = new int[64]; // open tiles that may still border unknown tiles
+    private int boundarySize;
+    private int[] pending = new int[64]; // numbers to recheck since their neighborhood changed
+    private int pendingSize;
+    private final boolean[] queued;
+    private final boolean[] visited;
+    private final int[] varOf;
+    private Map<Signature, Component> solved = new HashMap<>(); // components of the last guess, most survive a move
+
+    Solver(Mode mode) {
+        this.mode = mode;
+        known = new byte[mode.cells()];
+        queued = new boolean[mode.cells()];
+        visited = new boolean[mode.cells()];
+        varOf = new int[mode.cells()];
+        Arrays.fill(varOf, -1);
+    }
+
+    @Override
+    public int[] next(Board board) {
+        if (!scan(board)) {
+            return new int[]{mode.index(mode.rows / 2, mode.columns / 2)}; // first click is always an opening
+        }
+        deduce(board);
+        var safe = safeTiles(board);
+        while (safe.length == 0 && deduceSubsets(board)) {
+            deduce(board);
+            safe = safeTiles(board);
+        }
+        return safe.length > 0 ? safe : guess(board);
+    }
+
+    private boolean scan(Board board) {
+        var any = false;
+        for (int i = 0; i < known.length; i++) {
+            if (board.revealed(i)) {
+                any = true;
+                if (known[i] != OPEN) {
+                    mark(board, i, OPEN);
+                    if (board.neighborMines(i) > 0) {
+                        boundary = push(boundary, boundarySize++, i);
+                        enqueue(i);
+                    }
+                }
+            }
+        }
+        return any;
+    }
+
+    private void mark(Board board, int cell, byte state) {
+        knownMines += (state == MINE ? 1 : 0) - (known[cell] == MINE ? 1 : 0);
+        known[cell] = state;
+        for (var offset : mode.neighborOffsets(cell)) { // the numbers around it have one less unknown
+            var n = cell + offset;
+            if (known[n] == OPEN && board.neighborMines(n) > 0) {
+                enqueue(n);
+            }
+        }
+    }
+
+    private void enqueue(int cell) {
+        if (!queued[cell]) {
+            queued[cell] = true;
+            pending = push(pending, pendingSize++, cell);
+        }
+    }
+
+    private void deduce(Board board) {
+        while (pendingSize > 0) {
+            var cell = pending[--pendingSize];
+            queued[cell] = false;
+            var mines = 0;
+            var unknown = 0;
+            for (var offset : mode.neighborOffsets(cell)) {
+                switch (known[cell + offset]) {
+                    case MINE -> mines++;
+                    case UNKNOWN -> unknown++;
+                }
+            }
+            var need = board.neighborMines(cell) - mines;
+            if (unknown == 0 || (need != 0 && need != unknown)) {
+                continue;
+            }
+            var state = need == 0 ? SAFE : MINE;
+            for (var offset : mode.neighborOffsets(cell)) {
+                if (known[cell + offset] == UNKNOWN) {
+                    mark(board, cell + offset, state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Two numbers within two tiles of each other where the unknown tiles of one are a subset of the
+     * other's: the difference holds exactly the difference of their remaining counts.
+     */
+    private boolean deduceSubsets(Board board) {
+        compactBoundary();
+        var a = new int[8];
+        var b = new int[8];
+        var progress = false;
+        for (int i = 0; i < boundarySize; i++) {
+            var cell = boundary[i];
+            var sizeA = unknownNeighbors(cell, a);
+            if (sizeA == 0) {
+                continue;
+            }
+            var needA = board.neighborMines(cell) - knownMineNeighbors(cell);
+            var row = mode.row(cell);
+            var col = mode.col(cell);
+            for (int r = Math.max(0, row - 2); r <= Math.min(mode.rows - 1, row + 2); r++) {
+                for (int c = Math.max(0, col - 2); c <= Math.min(mode.columns - 1, col + 2); c++) {
+                    var other = mode.index(r, c);
+                    if (other == cell || known[other] != OPEN || board.neighborMines(other) == 0) {
+                        continue;
+                    }
+                    var sizeB = unknownNeighbors(other, b);
+                    if (sizeB <= sizeA || !contains(b, sizeB, a, sizeA)) {
+                        continue;
+                    }
+                    var need = board.neighborMines(other) - knownMineNeighbors(other) - needA;
+                    if (need != 0 && need != sizeB - sizeA) {
+                        continue;
+                    }
+                    for (int k = 0; k < sizeB; k++) {
+                        if (!contains(a, sizeA, b[k])) {
+                            mark(board, b[k], need == 0 ? SAFE : MINE);
+                            progress = true;
+                        }
+                    }
+                    sizeA = unknownNeighbors(cell, a);
+                    if (sizeA == 0) {
+                        break;
+                    }
+                    needA = board.neighborMines(cell) - knownMineNeighbors(cell);
+                }
+            }
+        }
+        return progress;
+    }
+
+    private int unknownNeighbors(int cell, int[] into) {
+        var size = 0;
+        for (var offset : mode.neighborOffsets(cell)) {
+            if (known[cell + offset] == UNKNOWN) {
+                into[size++] = cell + offset;
+            }
+        }
+        return size;
+    }
+
+    private int knownMineNeighbors(int cell) {
+        var mines = 0;
+        for (var offset : mode.neighborOffsets(cell)) {
+            mines += known[cell + offset] == MINE ? 1 : 0;
+        }
+        return mines;
+    }
+
+    private static boolean contains(int[] set, int size, int[] subset, int subsetSize) {
+        for (int i = 0; i < subsetSize; i++) {
+            if (!contains(set, size, subset[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] set, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (set[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compactBoundary() {
+        var size = 0;
+        for (int b = 0; b < boundarySize; b++) {
+            var cell = boundary[b];
+            for (var offset : mode.neighborOffsets(cell)) {
+                if (known[cell + offset] == UNKNOWN) {
+                    boundary[size++] = cell;
+                    break;
+                }
+            }
+        }
+        boundarySize = size;
+    }
+
+    private int[] safeTiles(Board board) {
+        var safe = new int[8];
+        var count = 0;
+        for (int i = 0; i < known.length; i++) {
+            if (known[i] == SAFE && !board.revealed(i)) {
+                safe = push(safe, count++, i);
+            }
+        }
+        return Arrays.copyOf(safe, count);
+    }
+
+    private int[] guess(Board board) {
+        compactBoundary();
+        var components = components(board);
+        var big = components.stream().filter(c -> c.vars.length >= PARALLEL_VARS).toList();
+        if (big.size() > 1) {
+            ForkJoinTask.invokeAll(big);
+        }
+        for (var c : components) {
+            if (!c.isDone()) {
+                c.invoke();
+            }
+        }
+
+        var frontier = 0;
+        var unknown = 0;
+        var interiorTile = -1;
+        for (int i = 0; i < known.length; i++) {
+            if (known[i] == UNKNOWN) {
+                unknown++;
+                if (varOf[i] < 0 && interiorTile < 0) {
+                    interiorTile = i;
+                }
+            }
+        }
+        var remaining = mode.mines - knownMines;
+        var exact = new ArrayList<Component>();
+        for (var c : components) {
+            frontier += c.vars.length;
+            if (c.exact) {
+                exact.add(c);
+            } else {
+                remaining -= (int) Math.round(c.approximate());
+            }
+        }
+        var interiorProbability = combine(exact, unknown - frontier, remaining);
+
+        var safe = new int[8];
+        var count = 0;
+        var best = interiorTile;
+        var bestProbability = interiorTile < 0 ? 2.0 : interiorProbability;
+        for (var c : components) {
+            for (int v = 0; v < c.vars.length; v++) {
+                var cell = c.vars[v];
+                varOf[cell] = -1;
+                if (c.exact && (c.alwaysMine & 1L << v) != 0) {
+                    mark(board, cell, MINE);
+                } else if (c.exact && (c.everMine & 1L << v) == 0) {
+                    mark(board, cell, SAFE);
+                    safe = push(safe, count++, cell);
+                } else if (c.probabilities[v] < bestProbability) {
+                    best = cell;
+                    bestProbability = c.probabilities[v];
+                }
+            }
+        }
+        if (count > 0) {
+            return Arrays.copyOf(safe, count);
+        }
+        return best < 0 ? new int[0] : new int[]{best};
+    }
+
+    // independent frontier components: unknown tiles linked by the numbers they share
+    private List<Component> components(Board board) {
+        var vars = new int[16];
+        var varCount = 0;
+        for (int b = 0; b < boundarySize; b++) {
+            var cell = boundary[b];
+            for (var offset : mode.neighborOffsets(cell)) {
+                var n = cell + offset;
+                if (known[n] == UNKNOWN && varOf[n] < 0) {
+                    varOf[n] = varCount;
+                    vars = push(vars, varCount++, n);
+                }
+            }
+        }
+        var parent = new int[varCount];
+        for (int v = 0; v < varCount; v++) {
+            parent[v] = v;
+        }
+        for (int b = 0; b < boundarySize; b++) {
+            var cell = boundary[b];
+            var first = -1;
+            for (var offset : mode.neighborOffsets(cell)) {
+                var v = varOf[cell + offset];
+                if (v >= 0 && known[cell + offset] == UNKNOWN) {
+                    if (first < 0) {
+                        first = v;
+                    } else {
+                        parent[find(parent, v)] = find(parent, first);
+                    }
+                }
+            }
+        }
+
+        // breadth-first var order within a component, so constraints close early during the search
+        var members = new ArrayList<List<Integer>>();
+        var componentOf = new int[varCount];
+        Arrays.fill(componentOf, -1);
+        for (int v = 0; v < varCount; v++) {
+            var root = find(parent, v);
+            if (componentOf[root] < 0) {
+                componentOf[root] = members.size();
+                members.add(new ArrayList<>());
+            }
+        }
+        var seen = new boolean[varCount];
+        for (int v = 0; v < varCount; v++) {
+            if (seen[v]) {
+                continue;
+            }
+            var order = members.get(componentOf[find(parent, v)]);
+            seen[v] = true;
+            order.add(v);
+            for (int q = order.size() - 1; q < order.size(); q++) {
+                var cell = vars[order.get(q)];
+                for (var offset : mode.neighborOffsets(cell)) {
+                    var number = cell + offset;
+                    if (known[number] != OPEN || board.neighborMines(number) == 0) {
+                        continue;
+                    }
+                    for (var o : mode.neighborOffsets(number)) {
+                        var w = varOf[number + o];
+                        if (w >= 0 && !seen[w]) {
+                            seen[w] = true;
+                            order.add(w);
+                        }
+                    }
+                }
+            }
+        }
+
+        var components = new ArrayList<Component>(members.size());
+        var next = new HashMap<Signature, Component>();
+        for (var order : members) {
+            var cells = new int[order.size()];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = vars[order.get(i)];
+                varOf[cells[i]] = i; // local index from here on
+            }
+            var signature = new Signature(cells, constraints(board, cells));
+            var component = solved.get(signature);
+            if (component == null) {
+                component = new Component(signature.vars, signature.constraints);
+            }
+            next.put(signature, component);
+            components.add(component);
+        }
+        solved = next;
+        return components;
+    }
+
+    private int[][] constraints(Board board, int[] cells) {
+        var numbers = new ArrayList<Integer>();
+        for (var cell : cells) {
+            for (var offset : mode.neighborOffsets(cell)) {
+                var number = cell + offset;
+                if (known[number] == OPEN && board.neighborMines(number) > 0 && !visited[number]) {
+                    visited[number] = true;
+                    numbers.add(number);
+                }
+            }
+        }
+        var constraints = new int[numbers.size()][];
+        for (int i = 0; i < constraints.length; i++) {
+            var number = numbers.get(i);
+            visited[number] = false;
+            var row = new int[9];
+            var size = 1;
+            var need = board.neighborMines(number);
+            for (var offset : mode.neighborOffsets(number)) {
+                var n = number + offset;
+                if (known[n] == MINE) {
+                    need--;
+                } else if (known[n] == UNKNOWN) {
+                    row[size++] = varOf[n];
+                }
+            }
+            row[0] = need;
+            constraints[i] = Arrays.copyOf(row, size);
+        }
+        return constraints;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Weighs every component's solutions by the ways the rest of the board can hold the remaining
+     * mines, filling in each component's per-tile probabilities. Returns the mine probability of a
+     * covered tile away from the frontier.
+     */
+    private static double combine(List<Component> components, int interior, int remaining) {
+        var frontier = 0;
+        for (var c : components) {
+            frontier += c.vars.length;
+        }
+        // binomial(interior, remaining - k) for k frontier mines, built from ratios and scaled to the largest
+        var ways = new double[frontier + 1];
+        var logs = new double[frontier + 1];
+        var max = Double.NEGATIVE_INFINITY;
+        for (int k = frontier; k >= 0; k--) {
+            var x = remaining - k;
+            if (x < 0 || x > interior) {
+                logs[k] = Double.NEGATIVE_INFINITY;
+            } else if (k == frontier || logs[k + 1] == Double.NEGATIVE_INFINITY) {
+                logs[k] = 0;
+            } else {
+                logs[k] = logs[k + 1] + Math.log((interior - x + 1) / (double) x);
+            }
+            max = Math.max(max, logs[k]);
+        }
+        for (int k = 0; k <= frontier; k++) {
+            ways[k] = max == Double.NEGATIVE_INFINITY ? 0 : Math.exp(logs[k] - max);
+        }
+
+        // suffix[c][a]: weight of completing the board when components before c hold a mines
+        var suffix = new double[components.size() + 1][];
+        suffix[components.size()] = ways;
+        for (int c = components.size() - 1; c >= 0; c--) {
+            suffix[c] = normalize(convolveAhead(components.get(c).counts, suffix[c + 1]));
+        }
+        var prefix = new double[frontier + 1];
+        prefix[0] = 1;
+        for (int c = 0; c < components.size(); c++) {
+            var component = components.get(c);
+            var next = suffix[c + 1];
+            var weights = new double[component.counts.length];
+            for (int k = 0; k < weights.length; k++) {
+                for (int a = 0; a + k <= frontier && component.counts[k] != 0; a++) {
+                    weights[k] += prefix[a] * next[a + k];
+                }
+            }
+            component.weigh(weights);
+            prefix = normalize(convolveBehind(component.counts, prefix));
+        }
+
+        var total = 0.0;
+        var expected = 0.0;
+        for (int k = 0; k <= frontier; k++) {
+            var w = prefix[k] * ways[k];
+            total += w;
+            expected += w * (remaining - k);
+        }
+        return interior == 0 || total == 0 ? 1.0 : expected / total / interior;
+    }
+
+    private static double[] convolveAhead(double[] counts, double[] next) {
+        var result = new double[next.length];
+        for (int k = 0; k < counts.length; k++) {
+            if (counts[k] != 0) {
+                for (int a = 0; a + k < next.length; a++) {
+                    result[a] += counts[k] * next[a + k];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double[] convolveBehind(double[] counts, double[] prefix) {
+        var result = new double[prefix.length];
+        for (int a = 0; a < prefix.length; a++) {
+            if (prefix[a] != 0) {
+                for (int k = 0; k < counts.length && a + k < result.length; k++) {
+                    result[a + k] += prefix[a] * counts[k];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double[] normalize(double[] values) {
+        var max = 0.0;
+        for (var v : values) {
+            max = Math.max(max, v);
+        }
+        if (max > 0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] /= max;
+            }
+        }
+        return values;
+    }
+
+    private static int[] push(int[] array, int size, int value) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, size * 2);
+        }
+        array[size] = value;
+        return array;
+    }
+
+    private record Signature(int[] vars, int[][] constraints) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature s && Arrays.equals(vars, s.vars) && Arrays.deepEquals(constraints, s.constraints);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(vars) + Arrays.deepHashCode(constraints);
+        }
+    }
+
+    /**
+     * Enumerates every mine assignment of one component that satisfies its numbers, one bit per tile.
+     */
+    private static final class Component extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int[] vars;
+        private final int[][] constraints; // need, then the local indices of the vars around a number
+        private final long[] masks;
+        private final int[] needs;
+        private final int[][] touching; // constraints of each var
+
+        boolean exact;
+        double[] counts; // solutions by number of mines
+        private double[][] mineCounts; // [mines][var]: solutions with that var a mine
+        long alwaysMine = -1L;
+        long everMine;
+        double[] probabilities;
+        private long nodes;
+        private final long budget;
+
+        Component(int[] vars, int[][] constraints) {
+            this.vars = vars;
+            this.constraints = constraints;
+            // NODE_BUDGET, doubled every 4 vars past PARALLEL_VARS as the search grows with the component
+            budget = NODE_BUDGET << Math.max(0, (vars.length - PARALLEL_VARS) / 4);
+            masks = new long[constraints.length];
+            needs = new int[constraints.length];
+            var touchCount = new int[vars.length];
+            for (int c = 0; c < constraints.length; c++) {
+                needs[c] = constraints[c][0];
+                for (int i = 1; i < constraints[c].length; i++) {
+                    var v = constraints[c][i];
+                    masks[c] |= 1L << v; // only read when the component is small enough to be exact
+                    touchCount[v]++;
+                }
+            }
+            touching = new int[vars.length][];
+            for (int v = 0; v < vars.length; v++) {
+                touching[v] = new int[touchCount[v]];
+                touchCount[v] = 0;
+            }
+            for (int c = 0; c < constraints.length; c++) {
+                for (int i = 1; i < constraints[c].length; i++) {
+                    var v = constraints[c][i];
+                    touching[v][touchCount[v]++] = c;
+                }
+            }
+        }
+
+        @Override
+        protected void compute() {
+            probabilities = new double[vars.length];
+            if (vars.length <= MAX_EXACT_VARS) {
+                counts = new double[vars.length + 1];
+                mineCounts = new double[vars.length + 1][];
+                exact = search(0, 0L, 0L) && Arrays.stream(counts).sum() > 0;
+            }
+            if (!exact) {
+                counts = new double[]{1};
+                for (int v = 0; v < vars.length; v++) {
+                    for (var c : touching[v]) {
+                        var row = constraints[c];
+                        probabilities[v] = Math.max(probabilities[v], row[0] / (double) (row.length - 1));
+                    }
+                }
+            }
+        }
+
+        private boolean search(int v, long mines, long assigned) {
+            if (++nodes > budget) {
+                return false;
+            }
+            if (v == vars.length) {
+                var k = Long.bitCount(mines);
+                counts[k]++;
+                if (mineCounts[k] == null) {
+                    mineCounts[k] = new double[vars.length];
+                }
+                for (var bits = mines; bits != 0; bits &= bits - 1) {
+                    mineCounts[k][Long.numberOfTrailingZeros(bits)]++;
+                }
+                alwaysMine &= mines;
+                everMine |= mines;
+                return true;
+            }
+            var bit = 1L << v;
+            assigned |= bit;
+            return (!consistent(v, mines, assigned) || search(v + 1, mines, assigned))
+                    && (!consistent(v, mines | bit, assigned) || search(v + 1, mines | bit, assigned));
+        }
+
+        private boolean consistent(int v, long mines, long assigned) {
+            for (var c : touching[v]) {
+                var set = Long.bitCount(masks[c] & mines);
+                var open = Long.bitCount(masks[c] & ~assigned);
+                if (set > needs[c] || set + open < needs[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void weigh(double[] weights) {
+            var total = 0.0;
+            for (int k = 0; k < counts.length; k++) {
+                total += counts[k] * weights[k];
+            }
+            if (total == 0) { // only with approximated components in play, fall back to this component alone
+                weights = new double[counts.length];
+                Arrays.fill(weights, 1);
+                for (var c : counts) {
+                    total += c;
+                }
+            }
+            Arrays.fill(probabilities, 0);
+            for (int k = 0; k < counts.length; k++) {
+                if (mineCounts[k] != null && weights[k] != 0) {
+                    for (int v = 0; v < vars.length; v++) {
+                        probabilities[v] += mineCounts[k][v] * weights[k];
+                    }
+                }
+            }
+            for (int v = 0; v < vars.length; v++) {
+                probabilities[v] /= total;
+            }
+        }
+
+        double approximate() {
+            var sum = 0.0;
+            for (var p : probabilities) {
+                sum += p;
+            }
+            return sum;
+        }
+    }
+
+}
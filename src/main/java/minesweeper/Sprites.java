@@ -0,0 +1,144 @@
+package minesweeper;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.imageio.ImageIO;
+
+/**
+ * The window's images, packed into one classpath resource of raw pixels, so the game starts from a jar
+ * alone and without ImageIO: loading is one inflate and a copy per image. The pixels of every image
+ * follow the index in one deflate stream.
+ * <pre>
+ * header: magic:int version:byte count:varint
+ * index:  (name:UTF width:varint height:varint) * count
+ * pixels: deflated (argb:int * width * height) * count
+ * </pre>
+ * Packed from the PNGs in {@code images} with {@code Sprites images src/main/resources/minesweeper/sprites.bin}.
+ */
+final class Sprites {
+
+    static final String RESOURCE = "sprites.bin";
+
+    private static final int MAGIC = 0x4D535350; // "MSSP"
+    private static final byte VERSION = 1;
+
+    private final Map<String, BufferedImage> images;
+
+    private Sprites(Map<String, BufferedImage> images) {
+        this.images = images;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: Sprites <png dir> <sprites file>");
+            System.exit(1);
+        }
+        pack(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    static Sprites load() {
+        try (var in = Sprites.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("missing resource: " + RESOURCE);
+            }
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    BufferedImage get(String name) {
+        var image = images.get(name);
+        if (image == null) {
+            throw new IllegalArgumentException("no sprite named " + name);
+        }
+        return image;
+    }
+
+    static Sprites read(InputStream stream) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a sprites file");
+        }
+        var version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported sprites version: " + version);
+        }
+        var count = (int) Varint.read(in);
+        var names = new String[count];
+        var widths = new int[count];
+        var heights = new int[count];
+        var pixels = 0;
+        for (int i = 0; i < count; i++) {
+            names[i] = in.readUTF();
+            widths[i] = (int) Varint.read(in);
+            heights[i] = (int) Varint.read(in);
+            pixels += widths[i] * heights[i];
+        }
+        var bytes = new byte[pixels * Integer.BYTES];
+        try (var inflater = new InflaterInputStream(in)) {
+            if (inflater.readNBytes(bytes, 0, bytes.length) != bytes.length) {
+                throw new IOException("sprites file is truncated");
+            }
+        }
+        var argb = ByteBuffer.wrap(bytes).asIntBuffer();
+        var images = new HashMap<String, BufferedImage>(count * 2);
+        for (int i = 0; i < count; i++) {
+            var data = new int[widths[i] * heights[i]];
+            argb.get(data);
+            var image = new BufferedImage(widths[i], heights[i], BufferedImage.TYPE_INT_ARGB);
+            image.getRaster().setDataElements(0, 0, widths[i], heights[i], data); // a copy, so the image stays accelerable
+            images.put(names[i], image);
+        }
+        return new Sprites(images);
+    }
+
+    static void pack(Path dir, Path file) {
+        try (var pngs = Files.list(dir)) {
+            var paths = pngs.filter(p -> p.getFileName().toString().endsWith(".png")).sorted().toList();
+            var images = new BufferedImage[paths.size()];
+            for (int i = 0; i < images.length; i++) {
+                images[i] = ImageIO.read(paths.get(i).toFile());
+            }
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                Varint.write(out, images.length);
+                for (int i = 0; i < images.length; i++) {
+                    var name = paths.get(i).getFileName().toString();
+                    out.writeUTF(name.substring(0, name.length() - ".png".length()));
+                    Varint.write(out, images[i].getWidth());
+                    Varint.write(out, images[i].getHeight());
+                }
+                var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                var deflated = new DeflaterOutputStream(out, deflater);
+                var pixels = new DataOutputStream(new BufferedOutputStream(deflated));
+                for (var image : images) {
+                    for (var argb : image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth())) {
+                        pixels.writeInt(argb);
+                    }
+                }
+                pixels.flush();
+                deflated.finish();
+                deflater.end();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel shared by every game in the process. One process advances the wheel a slot per tick
+ * and parks while nothing is scheduled. Scheduling and cancelling cost O(1) however many timeouts are
+ * pending. Expired tasks run in the wheel's process, so they must not block: a task that sends on a
+ * channel forks the send into the scope of the process it serves.
+ */
+final class TimerWheel {
+
+    static final TimerWheel SHARED = new TimerWheel(TimeUnit.MILLISECONDS.toNanos(10), 512);
+
+    static final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+        private volatile boolean cancelled;
+
+        private Timeout(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private final long tickNanos;
+    private final ArrayList<Timeout>[] slots;
+    private final int mask;
+    private final long originNanos = System.nanoTime();
+    private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private int pending; // timeouts in slots, wheel process only
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickNanos, int slotCount) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("slot count must be a power of two: " + slotCount);
+        }
+        this.tickNanos = tickNanos;
+        slots = (ArrayList<Timeout>[]) new ArrayList<?>[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        mask = slotCount - 1;
+        thread = CarrierPool.DEFAULT.threads("timer-wheel").newThread(this::run); // shared, so not on a game's carriers
+        thread.start();
+    }
+
+    // deadline in System.nanoTime() terms
+    Timeout schedule(long deadline, Runnable task) {
+        var timeout = new Timeout(deadline, task);
+        scheduled.add(timeout);
+        LockSupport.unpark(thread);
+        return timeout;
+    }
+
+    private void run() {
+        var tick = 0L; // next tick to expire
+        while (true) {
+            if (pending == 0 && scheduled.isEmpty()) {
+                LockSupport.park(this);
+                tick = Math.max(tick, (System.nanoTime() - originNanos) / tickNanos);
+                continue;
+            }
+            var wait = originNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue; // woken early by a new timeout, or spuriously
+            }
+            Timeout timeout;
+            while ((timeout = scheduled.poll()) != null) {
+                var due = Math.max(tick, Math.ceilDiv(timeout.deadline - originNanos, tickNanos));
+                slots[(int) (due & mask)].add(timeout);
+                pending++;
+            }
+            expire(slots[(int) (tick & mask)], tick);
+            tick++;
+        }
+    }
+
+    // a slot also holds timeouts a whole number of rounds away, which stay put
+    private void expire(ArrayList<Timeout> slot, long tick) {
+        var deadline = originNanos + (tick + 1) * tickNanos;
+        for (int i = slot.size() - 1; i >= 0; i--) {
+            var timeout = slot.get(i);
+            if (timeout.cancelled || timeout.deadline < deadline) {
+                slot.set(i, slot.get(slot.size() - 1));
+                slot.remove(slot.size() - 1);
+                pending--;
+                if (!timeout.cancelled) {
+                    run(timeout.task);
+                }
+            }
+        }
+    }
+
+    // a failing task is its own problem, the wheel keeps ticking for everyone else
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.err.println("timer task failed: " + e);
+        }
+    }
+
+}
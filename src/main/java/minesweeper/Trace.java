@@ -0,0 +1,109 @@
+package minesweeper;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tile and face presses of a recorded session, with the mode and seed needed to rebuild its boards.
+ * <pre>
+ * header: magic:int version:byte mode:UTF rows:int columns:int mines:int algorithm:UTF seed:long
+ * entry:  kind:byte micros-since-previous:varlong [row:varint col:varint]
+ * </pre>
+ * Version 1 traces were recorded before mines were placed on the first click, so their boards can't be
+ * rebuilt and they are rejected.
+ */
+record Trace(Mode mode, Seed seed, List<Entry> entries) {
+
+    record Entry(long micros, GameSignal signal) { // micros since the start of the session
+    }
+
+    private static final int MAGIC = 0x4D535452; // "MSTR"
+    private static final byte VERSION = 2;
+
+    private static final byte LEFT = 0;
+    private static final byte RIGHT = 1;
+    private static final byte FACE = 2;
+
+    static Trace read(Path path) {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("not a trace file: " + path);
+            }
+            var version = in.readByte();
+            if (version == 1) {
+                throw new IllegalArgumentException("version 1 trace, its boards came from an older mine placement: " + path);
+            }
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported trace version: " + version);
+            }
+            var name = in.readUTF();
+            var rows = in.readInt();
+            var columns = in.readInt();
+            var mines = in.readInt();
+            var mode = Mode.of(name, rows, columns, mines);
+            var seed = new Seed(in.readUTF(), in.readLong());
+            var entries = new ArrayList<Entry>();
+            var micros = 0L;
+            while (true) {
+                int kind;
+                try {
+                    kind = in.readByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                micros += Varint.read(in);
+                GameSignal signal = switch (kind) {
+                    case LEFT, RIGHT -> new GameSignal.TilePress(
+                            (int) Varint.read(in),
+                            (int) Varint.read(in),
+                            kind == LEFT ? ClickSide.LEFT : ClickSide.RIGHT);
+                    case FACE -> new GameSignal.FacePress();
+                    default -> throw new IllegalArgumentException("unknown trace entry: " + kind);
+                };
+                entries.add(new Entry(micros, signal));
+            }
+            return new Trace(mode, seed, entries);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static void writeHeader(DataOutput out, Mode mode, Seed seed) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(mode.name());
+        out.writeInt(mode.rows);
+        out.writeInt(mode.columns);
+        out.writeInt(mode.mines);
+        out.writeUTF(seed.algorithm());
+        out.writeLong(seed.value());
+    }
+
+    static boolean isRecorded(GameSignal signal) {
+        return signal instanceof GameSignal.TilePress || signal instanceof GameSignal.FacePress;
+    }
+
+    static void writeEntry(DataOutput out, long deltaMicros, GameSignal signal) throws IOException {
+        switch (signal) {
+            case GameSignal.TilePress tp -> {
+                out.writeByte(tp.clickSide() == ClickSide.LEFT ? LEFT : RIGHT);
+                Varint.write(out, deltaMicros);
+                Varint.write(out, tp.row());
+                Varint.write(out, tp.col());
+            }
+            case GameSignal.FacePress fp -> {
+                out.writeByte(FACE);
+                Varint.write(out, deltaMicros);
+            }
+            default -> throw new IllegalArgumentException("not a recorded signal: " + signal);
+        }
+    }
+
+}
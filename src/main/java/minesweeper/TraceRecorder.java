@@ -0,0 +1,58 @@
+package minesweeper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Game channel decorator that appends every tile and face press to a {@link Trace} file before
+ * passing it on. Wrap only the channel handed to the window, its single producer, so cell and
+ * clock signals are not recorded.
+ */
+class TraceRecorder implements Channel<GameSignal> {
+
+    private final Channel<GameSignal> delegate;
+    private final DataOutputStream out;
+    private long lastNanos;
+
+    TraceRecorder(Channel<GameSignal> delegate, Path path, Mode mode, Seed seed) {
+        this.delegate = delegate;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            Trace.writeHeader(out, mode, seed);
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        lastNanos = System.nanoTime();
+    }
+
+    @Override
+    public void put(GameSignal val) {
+        if (Trace.isRecorded(val)) {
+            var now = System.nanoTime();
+            try {
+                Trace.writeEntry(out, TimeUnit.NANOSECONDS.toMicros(now - lastNanos), val);
+                out.flush(); // presses are rare, keep the file complete if the window is closed
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            lastNanos = now;
+        }
+        delegate.put(val);
+    }
+
+    @Override
+    public GameSignal poll() {
+        return delegate.poll();
+    }
+
+    @Override
+    public GameSignal take() {
+        return delegate.take();
+    }
+
+}
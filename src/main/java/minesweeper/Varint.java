@@ -0,0 +1,35 @@
+package minesweeper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+// unsigned LEB128: seven bits per byte, low bits first, high bit set on all but the last byte
+final class Varint {
+
+    private Varint() {
+    }
+
+    static void write(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long read(DataInput in) throws IOException {
+        var value = 0L;
+        for (int shift = 0; ; shift += 7) {
+            if (shift >= Long.SIZE) {
+                throw new IOException("varint longer than 10 bytes");
+            }
+            var b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+}
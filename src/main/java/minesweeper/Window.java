@@ -1,16 +1,24 @@
 package minesweeper;
 
+import java.awt.AlphaComposite;
 import java.awt.Dimension;
 import java.awt.EventQueue;
 import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
-import javax.imageio.ImageIO;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
@@ -18,6 +26,8 @@ class Window {
 
     private static final int GRID_LEFT = 15;
     private static final int GRID_TOP = 81;
+    private static final int GRID_BOTTOM_MARGIN = 15;
+    private static final int MIN_COLUMNS = 9;
     private static final int CELL_SIDE = 20;
     private static final int FACE_TOP = 18;
     private static final int FACE_SIDE = 42;
@@ -25,32 +35,52 @@ class Window {
     private static final int DIGIT_PANEL_TOP = 21;
     private static final int DIGIT_PANEL_MARGIN = 2;
     private static final int DIGIT_WIDTH = 19;
-    private static final int[] WIDTH = {210, 350, 630};
-    private static final int[] HEIGHT = {276, 416, 416};
-    private static final int[] FACE_LEFT = {84, 154, 273};
-    private static final int[] FLAGS_PANEL_LEFT = {16, 20, 20};
+    private static final int NARROW_FLAGS_PANEL_LEFT = 16;
+    private static final int WIDE_FLAGS_PANEL_LEFT = 20;
+    private static final int SCREEN_MARGIN = 64; // title bar and task bar
+    private static final int WHEEL_TILES = 3;
+
+    private static final GraphicsConfiguration GRAPHICS = GraphicsEnvironment.getLocalGraphicsEnvironment()
+            .getDefaultScreenDevice()
+            .getDefaultConfiguration();
 
     private final Images images;
     private final Canvas canvas;
     private final Mode mode;
+    private final int viewRows;
+    private final int viewColumns;
+    private final int width;
+    private final int height;
+    private final int faceLeft;
+    private final int flagsPanelLeft;
+    private final BufferedImage background;
+    private final BufferedImage tileBuffer; // tiles in the viewport, redrawn only where cells change or scroll into view
 
     private final Channel<GameState> windowChannel;
     private final Channel<GameSignal> gameChannel;
 
+    private final Path savePath;
     private GameState gameState;
+    private Board board;
+    private boolean awaitingSnapshot;
+    private boolean saveRequested; // saved from the next snapshot
+    private int viewRow; // top left tile of the viewport
+    private int viewCol;
 
-    private record ImageLoader(String dir) {
-        BufferedImage load(String file) {
-            try {
-                return ImageIO.read(new File(dir, file + ".png"));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+    // converted once at load to the screen's format, so drawing them needs no per-pixel conversion
+    private static BufferedImage compatible(BufferedImage src) {
+        if (src.getColorModel().equals(GRAPHICS.getColorModel())) {
+            return src;
         }
+        var img = GRAPHICS.createCompatibleImage(src.getWidth(), src.getHeight(), src.getTransparency());
+        var g = img.createGraphics();
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return img;
     }
 
     private static class Images {
-        final BufferedImage[] backgrounds;
+        final BufferedImage[] backgrounds; // small, medium, large
         final BufferedImage[] digits;
         final BufferedImage digitPanel;
         final BufferedImage faceSad;
@@ -61,41 +91,88 @@ class Window {
         final BufferedImage tileMine;
         final BufferedImage[] tiles;
 
-        Images(ImageLoader loader) {
+        Images(Sprites sprites) {
+            Function<String, BufferedImage> sprite = name -> compatible(sprites.get(name));
             backgrounds = Stream.of("small", "medium", "large")
                     .map(s -> "background_" + s)
-                    .map(loader::load)
+                    .map(sprite)
                     .toArray(BufferedImage[]::new);
             digits = IntStream.range(0, 10)
-                    .mapToObj(d -> loader.load("digit_%d".formatted(d)))
+                    .mapToObj(d -> sprite.apply("digit_%d".formatted(d)))
                     .toArray(BufferedImage[]::new);
-            digitPanel = loader.load("digit_panel");
-            faceSad = loader.load("face_lose");
-            faceCool = loader.load("face_win");
-            faceHappy = loader.load("face_playing");
-            tileCovered = loader.load("tile");
-            tileFlag = loader.load("tile_flag");
-            tileMine = loader.load("tile_mine");
+            digitPanel = sprite.apply("digit_panel");
+            faceSad = sprite.apply("face_lose");
+            faceCool = sprite.apply("face_win");
+            faceHappy = sprite.apply("face_playing");
+            tileCovered = sprite.apply("tile");
+            tileFlag = sprite.apply("tile_flag");
+            tileMine = sprite.apply("tile_mine");
             tiles = IntStream.range(0, 9)
-                    .mapToObj(d -> loader.load("tile_%d".formatted(d)))
+                    .mapToObj(d -> sprite.apply("tile_%d".formatted(d)))
                     .toArray(BufferedImage[]::new);
         }
+
+        BufferedImage background(int width, int height) {
+            for (var bg : backgrounds) {
+                if (bg.getWidth() == width && bg.getHeight() == height) {
+                    return bg;
+                }
+            }
+            return stretchBackground(backgrounds[backgrounds.length - 1], width, height);
+        }
+
+        // nine-slice scale: corners and the header band keep their size, the uniform interior stretches
+        private static BufferedImage stretchBackground(BufferedImage src, int width, int height) {
+            var img = GRAPHICS.createCompatibleImage(width, height, src.getTransparency());
+            var g = img.createGraphics();
+            int[] sx = {0, GRID_LEFT, src.getWidth() - GRID_LEFT, src.getWidth()};
+            int[] dx = {0, GRID_LEFT, width - GRID_LEFT, width};
+            int[] sy = {0, GRID_TOP, src.getHeight() - GRID_BOTTOM_MARGIN, src.getHeight()};
+            int[] dy = {0, GRID_TOP, height - GRID_BOTTOM_MARGIN, height};
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    g.drawImage(src, dx[j], dy[i], dx[j + 1], dy[i + 1], sx[j], sy[i], sx[j + 1], sy[i + 1], null);
+                }
+            }
+            g.dispose();
+            return img;
+        }
     }
 
     Window(
-            String assetsDir,
+            Sprites sprites,
             Mode mode,
             Channel<GameState> windowChannel,
             Channel<GameSignal> gameChannel,
-            GameState initialState) {
+            GameState.Snapshot initialState,
+            Path savePath) {
         this.windowChannel = windowChannel;
+        this.savePath = savePath;
         this.gameChannel = gameChannel;
         this.gameState = initialState;
+        this.board = initialState.board();
         this.mode = mode;
-        images = new Images(new ImageLoader(assetsDir));
+        if (mode.columns < MIN_COLUMNS) {
+            throw new IllegalArgumentException("window requires at least %d columns: %s".formatted(MIN_COLUMNS, mode));
+        }
+        // boards larger than the screen are shown through a scrolling viewport
+        var screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        viewColumns = Math.min(mode.columns, Math.max(MIN_COLUMNS, (screen.width - 2 * GRID_LEFT) / CELL_SIDE));
+        viewRows = Math.min(mode.rows, Math.max(1, (screen.height - SCREEN_MARGIN - GRID_TOP - GRID_BOTTOM_MARGIN) / CELL_SIDE));
+        width = 2 * GRID_LEFT + viewColumns * CELL_SIDE;
+        height = GRID_TOP + viewRows * CELL_SIDE + GRID_BOTTOM_MARGIN;
+        faceLeft = (width - FACE_SIDE) / 2;
+        flagsPanelLeft = viewColumns < Mode.INTERMEDIATE.columns ? NARROW_FLAGS_PANEL_LEFT : WIDE_FLAGS_PANEL_LEFT;
+        images = new Images(sprites);
+        background = images.background(width, height);
+        tileBuffer = GRAPHICS.createCompatibleImage(viewColumns * CELL_SIDE, viewRows * CELL_SIDE, Transparency.TRANSLUCENT);
+        drawTiles(0, viewRows, 0, viewColumns);
         canvas = new Canvas();
-        canvas.setPreferredSize(new Dimension(WIDTH[mode.ordinal()], HEIGHT[mode.ordinal()]));
+        canvas.setPreferredSize(new Dimension(width, height));
         canvas.addMouseListener(new MouseClickHandler());
+        canvas.addMouseWheelListener(this::onMouseWheel);
+        canvas.addKeyListener(new KeyHandler());
+        canvas.setFocusable(true);
         JFrame frame = new JFrame("Minesweeper");
         frame.add(canvas);
         frame.setVisible(true);
@@ -106,13 +183,14 @@ class Window {
     private class MouseClickHandler extends MouseAdapter {
         @Override
         public void mousePressed(MouseEvent e) {
-            if (inside(GRID_LEFT, GRID_TOP, mode.columns * CELL_SIDE, mode.rows * CELL_SIDE, e.getX(), e.getY())) {
-                var row = (e.getY() - GRID_TOP) / CELL_SIDE;
-                var col = (e.getX() - GRID_LEFT) / CELL_SIDE;
+            canvas.requestFocusInWindow();
+            if (inside(GRID_LEFT, GRID_TOP, viewColumns * CELL_SIDE, viewRows * CELL_SIDE, e.getX(), e.getY())) {
+                var row = viewRow + (e.getY() - GRID_TOP) / CELL_SIDE;
+                var col = viewCol + (e.getX() - GRID_LEFT) / CELL_SIDE;
                 var click = e.getButton() == MouseEvent.BUTTON1 ? ClickSide.LEFT : ClickSide.RIGHT;
                 gameChannel.put(new GameSignal.TilePress(row, col, click));
             }
-            if (inside(FACE_LEFT[mode.ordinal()], FACE_TOP, FACE_SIDE, FACE_SIDE, e.getX(), e.getY())) {
+            if (inside(faceLeft, FACE_TOP, FACE_SIDE, FACE_SIDE, e.getX(), e.getY())) {
                 gameChannel.put(new GameSignal.FacePress());
             }
         }
@@ -122,8 +200,78 @@ class Window {
         }
     }
 
-    void start() {
-        Thread.ofVirtual().start(this::run);
+    private class KeyHandler extends KeyAdapter {
+        @Override
+        public void keyPressed(KeyEvent e) {
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_UP -> scrollTo(viewRow - 1, viewCol);
+                case KeyEvent.VK_DOWN -> scrollTo(viewRow + 1, viewCol);
+                case KeyEvent.VK_LEFT -> scrollTo(viewRow, viewCol - 1);
+                case KeyEvent.VK_RIGHT -> scrollTo(viewRow, viewCol + 1);
+                case KeyEvent.VK_PAGE_UP -> scrollTo(viewRow - viewRows, viewCol);
+                case KeyEvent.VK_PAGE_DOWN -> scrollTo(viewRow + viewRows, viewCol);
+                case KeyEvent.VK_HOME -> scrollTo(0, 0);
+                case KeyEvent.VK_S -> {
+                    if (e.isControlDown()) {
+                        save();
+                    }
+                }
+            }
+        }
+    }
+
+    // from a snapshot of the game's own board, as only that holds the mines
+    private void save() {
+        saveRequested = true;
+        if (!awaitingSnapshot) {
+            awaitingSnapshot = true;
+            gameChannel.put(new GameSignal.SnapshotRequest());
+        }
+    }
+
+    // shift scrolls sideways
+    private void onMouseWheel(MouseWheelEvent e) {
+        var tiles = e.getWheelRotation() * WHEEL_TILES;
+        if (e.isShiftDown()) {
+            scrollTo(viewRow, viewCol + tiles);
+        } else {
+            scrollTo(viewRow + tiles, viewCol);
+        }
+    }
+
+    // shifts the tiles still in view within the buffer and draws only those that scrolled in
+    private void scrollTo(int row, int col) {
+        row = Math.max(0, Math.min(mode.rows - viewRows, row));
+        col = Math.max(0, Math.min(mode.columns - viewColumns, col));
+        var dr = row - viewRow;
+        var dc = col - viewCol;
+        if (dr == 0 && dc == 0) {
+            return;
+        }
+        viewRow = row;
+        viewCol = col;
+        if (Math.abs(dr) >= viewRows || Math.abs(dc) >= viewColumns) {
+            drawTiles(0, viewRows, 0, viewColumns);
+        } else {
+            var g = tileBuffer.createGraphics();
+            g.copyArea(0, 0, tileBuffer.getWidth(), tileBuffer.getHeight(), -dc * CELL_SIDE, -dr * CELL_SIDE);
+            g.dispose();
+            if (dr > 0) {
+                drawTiles(viewRows - dr, viewRows, 0, viewColumns);
+            } else if (dr < 0) {
+                drawTiles(0, -dr, 0, viewColumns);
+            }
+            if (dc > 0) {
+                drawTiles(0, viewRows, viewColumns - dc, viewColumns);
+            } else if (dc < 0) {
+                drawTiles(0, viewRows, 0, -dc);
+            }
+        }
+        canvas.repaint(GRID_LEFT, GRID_TOP, tileBuffer.getWidth(), tileBuffer.getHeight());
+    }
+
+    void start(ProcessScope scope) {
+        scope.fork(this::run);
     }
 
     private void run() {
@@ -136,11 +284,76 @@ class Window {
 
     private void onGameState(GameState gs) {
         EventQueue.invokeLater(() -> {
-            gameState = gs;
-            canvas.repaint();
+            switch (gs) {
+                case GameState.Snapshot s -> onSnapshot(s);
+                case GameState.Delta d -> onDelta(d);
+                case GameState.Status st -> onStatus(st);
+                case GameState.Settled st -> onStatus(st);
+            }
         });
     }
 
+    private void onSnapshot(GameState.Snapshot s) {
+        gameState = s;
+        board = s.board();
+        awaitingSnapshot = false;
+        if (saveRequested) {
+            saveRequested = false;
+            SavedGame.write(savePath, s);
+        }
+        drawTiles(0, viewRows, 0, viewColumns);
+        canvas.repaint();
+    }
+
+    private void onDelta(GameState.Delta d) {
+        if (awaitingSnapshot) {
+            return;
+        }
+        if (d.seq() != gameState.seq() + 1) { // missed an update, local board can't be trusted
+            awaitingSnapshot = true;
+            gameChannel.put(new GameSignal.SnapshotRequest());
+            return;
+        }
+        board.apply(d);
+        for (var index : d.cells()) {
+            var r = mode.row(index) - viewRow;
+            var c = mode.col(index) - viewCol;
+            if (r >= 0 && r < viewRows && c >= 0 && c < viewColumns) {
+                drawTiles(r, r + 1, c, c + 1);
+                canvas.repaint(GRID_LEFT + c * CELL_SIDE, GRID_TOP + r * CELL_SIDE, CELL_SIDE, CELL_SIDE);
+            }
+        }
+        if (d.state() != gameState.state() || d.time() != gameState.time() || d.flags() != gameState.flags()) {
+            canvas.repaint(0, 0, width, GRID_TOP);
+        }
+        gameState = d;
+    }
+
+    private void onStatus(GameState st) {
+        if (awaitingSnapshot) {
+            return;
+        }
+        if (st.seq() != gameState.seq() + 1) {
+            awaitingSnapshot = true;
+            gameChannel.put(new GameSignal.SnapshotRequest());
+            return;
+        }
+        gameState = st;
+        canvas.repaint(0, 0, width, GRID_TOP);
+    }
+
+    // -Dminesweeper.firstFrame=print reports the time from JVM start to the first paint, =exit then exits
+    private static void onFirstFrame() {
+        var firstFrame = System.getProperty("minesweeper.firstFrame");
+        if (firstFrame == null) {
+            return;
+        }
+        System.out.printf("first frame: %d ms after JVM start%n", ManagementFactory.getRuntimeMXBean().getUptime());
+        if (firstFrame.equalsIgnoreCase("exit")) {
+            System.exit(0);
+        }
+    }
+
     private void drawDigits(Graphics g, int numDigits, int right, int top, int width, int val) {
         for (int i = 0; i < numDigits; i++) {
             var digit = val % 10;
@@ -151,34 +364,30 @@ class Window {
     }
 
     private void drawBackground(Graphics g) {
-        g.drawImage(images.backgrounds[mode.ordinal()], 0, 0, null);
+        g.drawImage(background, 0, 0, null);
     }
 
     private void drawFlagsPanel(Graphics g) {
-        g.drawImage(images.digitPanel, FLAGS_PANEL_LEFT[mode.ordinal()], DIGIT_PANEL_TOP, null);
+        g.drawImage(images.digitPanel, flagsPanelLeft, DIGIT_PANEL_TOP, null);
         drawDigits(
                 g,
                 3,
-                FLAGS_PANEL_LEFT[mode.ordinal()] + DIGIT_PANEL_WIDTH,
+                flagsPanelLeft + DIGIT_PANEL_WIDTH,
                 DIGIT_PANEL_MARGIN + DIGIT_PANEL_TOP,
                 DIGIT_PANEL_MARGIN + DIGIT_WIDTH,
-                Math.max(0, mode.mines - countFlags()));
-    }
-
-    private int countFlags() {
-        return Stream.of(gameState.cellStates()).flatMap(Stream::of).mapToInt(c -> c.flagged() ? 1 : 0).sum();
+                Math.max(0, mode.mines - gameState.flags()));
     }
 
     private void drawTimePanel(Graphics g) {
         g.drawImage(
                 images.digitPanel,
-                WIDTH[mode.ordinal()] - FLAGS_PANEL_LEFT[mode.ordinal()] - DIGIT_PANEL_WIDTH,
+                width - flagsPanelLeft - DIGIT_PANEL_WIDTH,
                 DIGIT_PANEL_TOP,
                 null);
         drawDigits(
                 g,
                 3,
-                WIDTH[mode.ordinal()] - FLAGS_PANEL_LEFT[mode.ordinal()],
+                width - flagsPanelLeft,
                 DIGIT_PANEL_MARGIN + DIGIT_PANEL_TOP,
                 DIGIT_PANEL_MARGIN + DIGIT_WIDTH,
                 (int) Math.min(999, gameState.time()));
@@ -191,27 +400,30 @@ class Window {
             case LOST -> images.faceSad;
             case WON -> images.faceCool;
         };
-        g.drawImage(img, FACE_LEFT[mode.ordinal()], FACE_TOP, null);
+        g.drawImage(img, faceLeft, FACE_TOP, null);
     }
 
-    private void drawTiles(Graphics g) {
-        var css = gameState.cellStates();
-        mode.rowCols().forEach(rc -> g.drawImage(
-                tileImage(css[rc.row()][rc.col()]),
-                GRID_LEFT + rc.col() * CELL_SIDE,
-                GRID_TOP + rc.row() * CELL_SIDE,
-                null));
+    // rows and columns relative to the viewport, end exclusive
+    private void drawTiles(int fromRow, int toRow, int fromCol, int toCol) {
+        var g = tileBuffer.createGraphics();
+        g.setComposite(AlphaComposite.Src); // replace, so translucent tiles don't blend with the tile they cover
+        for (int r = fromRow; r < toRow; r++) {
+            for (int c = fromCol; c < toCol; c++) {
+                g.drawImage(tileImage(board, viewRow + r, viewCol + c), c * CELL_SIDE, r * CELL_SIDE, null);
+            }
+        }
+        g.dispose();
     }
 
-    private BufferedImage tileImage(CellState cs) {
-        if (cs.revealed()) {
-            if (cs.mine()) {
+    private BufferedImage tileImage(Board board, int row, int col) {
+        if (board.revealed(row, col)) {
+            if (board.mine(row, col)) {
                 return images.tileMine;
             } else {
-                return images.tiles[cs.neighborMines()];
+                return images.tiles[board.neighborMines(row, col)];
             }
         } else {
-            if (cs.flagged()) {
+            if (board.flagged(row, col)) {
                 return images.tileFlag;
             } else {
                 return images.tileCovered;
@@ -220,14 +432,28 @@ class Window {
     }
 
     private class Canvas extends JPanel {
+        private static final long serialVersionUID = 1L;
+
+        private boolean painted;
+
         @Override
         public void paint(Graphics g) {
             super.paint(g);
+            if (!painted) {
+                painted = true;
+                onFirstFrame();
+            }
+            var clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, width, height);
+            }
             drawBackground(g);
-            drawFlagsPanel(g);
-            drawTimePanel(g);
-            drawFace(g);
-            drawTiles(g);
+            if (clip.y < GRID_TOP) {
+                drawFlagsPanel(g);
+                drawTimePanel(g);
+                drawFace(g);
+            }
+            g.drawImage(tileBuffer, GRID_LEFT, GRID_TOP, null);
         }
     }
 
@@ -0,0 +1,56 @@
+package minesweeper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CellTest {
+
+    private static final int NORTH_WEST = Mode.direction(-1, -1);
+    private static final int NORTH = Mode.direction(-1, 0);
+
+    // the center of a 3x3 board, a zero, with the channels of its neighbors
+    private final Mode mode = Mode.parse("3x3x0").orElseThrow();
+    private final int center = mode.index(1, 1);
+    private final int[] directions = mode.neighborDirections(center);
+    @SuppressWarnings("unchecked")
+    private final Channel<CellSignal>[] neighbors = new Channel[directions.length];
+    private final Channel<CellSignal> inChannel = Channels.DEFAULT.cellChannel(center);
+    private final Channel<GameSignal> gameChannel = Channels.DEFAULT.gameChannel();
+    private final Quiescence quiescence = new Quiescence(gameChannel);
+    private final CellSignal.Generation generation = CellSignal.Generation.of(1);
+
+    CellTest() {
+        for (int n = 0; n < neighbors.length; n++) {
+            neighbors[n] = Channels.DEFAULT.cellChannel(center + mode.neighborOffsets(center)[n]);
+        }
+    }
+
+    // the north neighbor was flagged when the north-west one told it to reveal, and took the flag off before
+    // that reveal reached the center, so the center still has to tell it
+    @Test
+    void unflaggedSharedNeighborIsToldToReveal() {
+        try (var scope = new ProcessScope("cells")) {
+            new Cell(1, 1, inChannel, neighbors, directions, gameChannel, quiescence).start(scope);
+            inChannel.put(new CellSignal.Reset(generation));
+            quiescence.sent(3);
+            inChannel.put(generation.neighbor(CellSignal.NeighborEvent.FLAG_SET, NORTH));
+            inChannel.put(generation.neighbor(CellSignal.NeighborEvent.FLAG_UNSET, NORTH));
+            inChannel.put(generation.neighbor(CellSignal.NeighborEvent.REVEAL, NORTH_WEST));
+
+            var change = (GameSignal.StateChange) gameChannel.take(); // sent after the reveals
+            assertTrue(change.cellState().revealed());
+            for (int n = 0; n < neighbors.length; n++) {
+                var told = neighbors[n].poll();
+                if (directions[n] == NORTH_WEST) {
+                    assertEquals(null, told, "the sender is revealed already");
+                } else {
+                    assertEquals(generation.neighbor(CellSignal.NeighborEvent.REVEAL, Mode.opposite(directions[n])), told,
+                            "direction " + directions[n]);
+                }
+            }
+        }
+    }
+
+}